@@ -0,0 +1,41 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of copying a board, which the game and server used to do per move
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessBoardBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private ChessBoard[] boards;
+
+    @Setup(Level.Trial)
+    public void loadPositions() {
+        ChessGame[] games = PositionCorpus.games(phase);
+        boards = new ChessBoard[games.length];
+        for (int i = 0; i < games.length; i++) {
+            boards[i] = games[i].getBoard();
+        }
+    }
+
+    @Benchmark
+    public void copyConstructor(Blackhole bh) {
+        for (ChessBoard board : boards) {
+            bh.consume(new ChessBoard(board));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ChessGame calls the server makes on every move. Each operation covers
+ * every position in the chosen phase of the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private ChessGame[] games;
+    private ChessMove[] firstMoves;
+    private ChessGame[] scratch;
+
+    @Setup(Level.Trial)
+    public void loadPositions() {
+        games = PositionCorpus.games(phase);
+        firstMoves = new ChessMove[games.length];
+        scratch = new ChessGame[games.length];
+        for (int i = 0; i < games.length; i++) {
+            firstMoves[i] = games[i].legalMoves().iterator().next();
+        }
+    }
+
+    // makeMove changes the game, so give it a fresh copy each time
+    @Setup(Level.Invocation)
+    public void copyGames() {
+        for (int i = 0; i < games.length; i++) {
+            scratch[i] = PositionCorpus.copy(games[i]);
+        }
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole bh) {
+        for (ChessGame game : games) {
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    ChessPosition position = new ChessPosition(row, col);
+                    ChessPiece piece = game.getBoard().getPiece(position);
+                    if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                        bh.consume(game.validMoves(position));
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void makeMove(Blackhole bh) throws InvalidMoveException {
+        for (int i = 0; i < scratch.length; i++) {
+            scratch[i].makeMove(firstMoves[i]);
+            bh.consume(scratch[i]);
+        }
+    }
+
+    @Benchmark
+    public void isInCheck(Blackhole bh) {
+        for (ChessGame game : games) {
+            bh.consume(game.isInCheck(game.getTeamTurn()));
+        }
+    }
+
+    @Benchmark
+    public void isInCheckmate(Blackhole bh) {
+        for (ChessGame game : games) {
+            bh.consume(game.isInCheckmate(game.getTeamTurn()));
+        }
+    }
+
+    @Benchmark
+    public void isInStalemate(Blackhole bh) {
+        for (ChessGame game : games) {
+            bh.consume(game.isInStalemate(game.getTeamTurn()));
+        }
+    }
+}
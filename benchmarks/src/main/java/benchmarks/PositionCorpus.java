@@ -0,0 +1,60 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.Fen;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Positions the benchmarks run over, grouped by phase of the game so the
+ * numbers show how the engine copes with crowded and open boards.
+ */
+public final class PositionCorpus {
+
+    private static final Map<String, List<String>> POSITIONS = Map.of(
+            "opening", List.of(
+                    Fen.START,
+                    "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3",
+                    "rnbqkb1r/pp2pppp/3p1n2/8/3NP3/8/PPP2PPP/RNBQKB1R w KQkq - 1 5",
+                    "rnbqkbnr/ppp1pppp/8/3p4/2PP4/8/PP2PPPP/RNBQKBNR b KQkq - 0 2"),
+            "middlegame", List.of(
+                    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8",
+                    "2r2rk1/pp1bqppp/2n1pn2/3p4/3P4/2PBPN2/P2N1PPP/R2Q1RK1 b - - 3 12"),
+            "endgame", List.of(
+                    "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    "8/8/4k3/3p4/3P4/4K3/8/8 w - - 0 1",
+                    "6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1",
+                    "8/5k2/8/3Q4/8/8/2K5/8 b - - 0 1"));
+
+    private PositionCorpus() {
+    }
+
+    /**
+     * @return fresh games for every position in the phase
+     */
+    public static ChessGame[] games(String phase) {
+        List<String> fens = POSITIONS.get(phase);
+        if (fens == null) {
+            throw new IllegalArgumentException("Unknown phase: " + phase);
+        }
+        ChessGame[] games = new ChessGame[fens.size()];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = Fen.toGame(fens.get(i));
+        }
+        return games;
+    }
+
+    /**
+     * @return an independent copy of a game, so benchmarks can change it freely
+     */
+    public static ChessGame copy(ChessGame game) {
+        ChessGame copy = new ChessGame();
+        copy.setBoard(new ChessBoard(game.getBoard()));
+        copy.setTeamTurn(game.getTeamTurn());
+        return copy;
+    }
+}
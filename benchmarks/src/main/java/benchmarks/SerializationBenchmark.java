@@ -0,0 +1,106 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.GameCodec;
+import com.google.gson.Gson;
+import model.GameData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import serialization.Json;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round trip of GameData, which happens on every LOAD_GAME message, with
+ * plain reflection and with the shared Gson's streaming adapters, next to the
+ * same positions as FEN and in the binary form the database stores
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private final Gson reflective = new Gson(); // what the code used before the adapters
+    private GameData[] games;
+    private String[] json;
+    private String[] fen;
+    private byte[][] binary;
+
+    @Setup(Level.Trial)
+    public void loadPositions() {
+        ChessGame[] positions = PositionCorpus.games(phase);
+        games = new GameData[positions.length];
+        json = new String[positions.length];
+        fen = new String[positions.length];
+        binary = new byte[positions.length][];
+        for (int i = 0; i < positions.length; i++) {
+            games[i] = new GameData(i + 1, "white", "black", "game " + i, positions[i]);
+            json[i] = reflective.toJson(games[i]);
+            fen[i] = Fen.toFen(positions[i]);
+            binary[i] = GameCodec.encode(positions[i]);
+        }
+    }
+
+    @Benchmark
+    public void toJson(Blackhole bh) {
+        for (GameData game : games) {
+            bh.consume(reflective.toJson(game));
+        }
+    }
+
+    @Benchmark
+    public void fromJson(Blackhole bh) {
+        for (String text : json) {
+            bh.consume(reflective.fromJson(text, GameData.class));
+        }
+    }
+
+    @Benchmark
+    public void toJsonAdapters(Blackhole bh) {
+        for (GameData game : games) {
+            bh.consume(Json.GSON.toJson(game));
+        }
+    }
+
+    @Benchmark
+    public void fromJsonAdapters(Blackhole bh) {
+        for (String text : json) {
+            bh.consume(Json.GSON.fromJson(text, GameData.class));
+        }
+    }
+
+    @Benchmark
+    public void toFen(Blackhole bh) {
+        for (GameData game : games) {
+            bh.consume(Fen.toFen(game.game()));
+        }
+    }
+
+    @Benchmark
+    public void fromFen(Blackhole bh) {
+        for (String text : fen) {
+            bh.consume(Fen.toGame(text));
+        }
+    }
+
+    @Benchmark
+    public void encode(Blackhole bh) {
+        for (GameData game : games) {
+            bh.consume(GameCodec.encode(game.game()));
+        }
+    }
+
+    @Benchmark
+    public void decode(Blackhole bh) {
+        for (byte[] bytes : binary) {
+            bh.consume(GameCodec.decode(bytes));
+        }
+    }
+}
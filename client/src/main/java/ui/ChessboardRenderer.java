@@ -58,6 +58,19 @@ public class ChessboardRenderer {
 
     }
 
+    // Prints a bar that fills with white as white gets better, e.g. "Eval +1.25"
+    public void displayEvaluation(int centipawns) {
+        PrintStream out = new PrintStream(System.out, true, StandardCharsets.UTF_8);
+        int width = 32;
+        int whiteCells = Math.max(0, Math.min(width, width / 2 + centipawns / 50));
+
+        out.print("    ");
+        out.print(SET_BG_COLOR_WHITE + " ".repeat(whiteCells));
+        out.print(SET_BG_COLOR_BLACK + " ".repeat(width - whiteCells));
+        out.print(RESET);
+        out.printf(" Eval %+.2f%n", centipawns / 100.0);
+    }
+
     private void drawHeaders(PrintStream out) {
         out.print("    ");
         if (whitePerspective) {
@@ -1,6 +1,6 @@
 package ui;
 
-import com.google.gson.Gson;
+import serialization.Json;
 
 public class ClientException extends Exception {
 
@@ -21,8 +21,7 @@ public class ClientException extends Exception {
 
     public static ClientException fromJson(String json) {
         try {
-            var gson = new Gson();
-            var error = gson.fromJson(json, ErrorMessage.class);
+            var error = Json.GSON.fromJson(json, ErrorMessage.class);
             return new ClientException(error.message());
         } catch (Exception ex) {
             return new ClientException("Unknown error from server.");
@@ -51,6 +51,9 @@ public class GameplayClient implements Client, MessageHandler {
             case LOAD_GAME -> {
                 LoadGameMessage gm = (LoadGameMessage) msg;
                 loadGame(gm.getGame());
+                if (gm.getEvaluation() != null) { // only observers are sent one
+                    renderer.displayEvaluation(gm.getEvaluation());
+                }
             }
             case NOTIFICATION -> {
                 NotificationMessage nm = (NotificationMessage) msg;
@@ -131,18 +134,33 @@ public class GameplayClient implements Client, MessageHandler {
         return ClientStateTransition.stay("You resigned the game.");
     }
 
-    private ClientStateTransition handleMove(String[] tokens) throws ResponseException {if (tokens.length < 2) {
-            return ClientStateTransition.stay("Usage: move <FROM> <TO> [PROMOTION - optional]");
+    private ClientStateTransition handleMove(String[] tokens) throws ResponseException {
+        if (tokens.length < 1) {
+            return ClientStateTransition.stay("Usage: move <SAN> or move <FROM> <TO> [PROMOTION - optional]");
         }
-        var from = ChessPosition.fromAlgebraic(tokens[0]);
-        var to = ChessPosition.fromAlgebraic(tokens[1]);
 
-        ChessPiece.PieceType promotion = null;
-        if (tokens.length == 3) {
-            promotion = parsePromotionPiece(tokens[2]);
-        }
+        ChessMove move;
+        if (tokens.length == 1) {
+            // SAN is resolved against our copy of the game, so typos and ambiguous
+            // moves are caught here without asking the server
+            if (currentGame == null) {
+                return ClientStateTransition.stay("The game hasn't loaded yet.");
+            }
+            try {
+                move = San.parse(currentGame.getGame(), tokens[0]);
+            } catch (IllegalArgumentException e) {
+                return ClientStateTransition.stay(e.getMessage());
+            }
+        } else {
+            var from = ChessPosition.fromAlgebraic(tokens[0]);
+            var to = ChessPosition.fromAlgebraic(tokens[1]);
 
-        ChessMove move = new ChessMove(from, to, promotion);
+            ChessPiece.PieceType promotion = null;
+            if (tokens.length == 3) {
+                promotion = parsePromotionPiece(tokens[2]);
+            }
+            move = new ChessMove(from, to, promotion);
+        }
         MakeMoveCommand makeMove = new MakeMoveCommand(
                 authToken,
                 gameID,
@@ -168,6 +186,7 @@ public class GameplayClient implements Client, MessageHandler {
     public String help() {
         return """
             Commands:
+                move <SAN> (e.g. e4, Nf3, exd5, O-O, e8=Q)
                 move <FROM> <TO> [PROMOTION - optional]
                 resign
                 leave
@@ -181,7 +200,8 @@ public class GameplayClient implements Client, MessageHandler {
     public String promotionHelp() {
         return """   
             To promote a pawn:
-            Type "move <from position> <to position> <promotion>"
+            Type "move <square>=<piece>", e.g. "move e8=Q" or "move dxe8=N"
+            Or type "move <from position> <to position> <promotion>"
                 Queen: 'q'
                 Rook: 'r'
                 Bishop: 'b'
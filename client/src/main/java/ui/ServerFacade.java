@@ -1,6 +1,7 @@
 package ui;
 
 import com.google.gson.Gson;
+import serialization.Json;
 import model.requestsandresults.*;
 
 import java.net.*;
@@ -11,7 +12,7 @@ import java.net.http.HttpResponse.BodyHandlers;
 public class ServerFacade {
     private final HttpClient client = HttpClient.newHttpClient();
     private final String serverUrl;
-    private final Gson gson = new Gson();
+    private final Gson gson = Json.GSON;
 
     public ServerFacade(String url) {
         serverUrl = url;
@@ -107,7 +108,7 @@ public class ServerFacade {
         }
 
         if (responseClass != null) {
-            return new Gson().fromJson(response.body(), responseClass);
+            return Json.GSON.fromJson(response.body(), responseClass);
         }
 
         return null;
@@ -1,6 +1,7 @@
 package websocket;
 
 import com.google.gson.Gson;
+import serialization.Json;
 
 import exceptions.ResponseException;
 import jakarta.websocket.*;
@@ -8,9 +9,6 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 
-import websocket.messages.ErrorMessage;
-import websocket.messages.LoadGameMessage;
-import websocket.messages.NotificationMessage;
 import websocket.messages.ServerMessage;
 import websocket.commands.UserGameCommand;
 
@@ -18,7 +16,7 @@ public class WebSocketFacade extends Endpoint {
 
     private final Session session;
     private final MessageHandler messageHandler;
-    private final Gson gson = new Gson();
+    private final Gson gson = Json.GSON;
 
     public WebSocketFacade(String url, MessageHandler messageHandler) throws ResponseException {
         try {
@@ -33,15 +31,12 @@ public class WebSocketFacade extends Endpoint {
             this.session.addMessageHandler(new jakarta.websocket.MessageHandler.Whole<String>() {
                 @Override
                 public void onMessage(String json) {
-                    ServerMessage base = gson.fromJson(json, ServerMessage.class);
-                    ServerMessage fullMessage;
-                    switch (base.getServerMessageType()) {
-                        case LOAD_GAME -> fullMessage = gson.fromJson(json, LoadGameMessage.class);
-                        case ERROR -> fullMessage = gson.fromJson(json, ErrorMessage.class);
-                        case NOTIFICATION -> fullMessage = gson.fromJson(json, NotificationMessage.class);
-                        default -> throw new IllegalStateException("Unexpected message type");
+                    // the shared Gson picks LoadGameMessage etc. from serverMessageType
+                    ServerMessage message = gson.fromJson(json, ServerMessage.class);
+                    if (message.getServerMessageType() == null) {
+                        throw new IllegalStateException("Unexpected message type");
                     }
-                    messageHandler.notify(fullMessage);
+                    messageHandler.notify(message);
                 }
             });
         } catch (Exception e) {
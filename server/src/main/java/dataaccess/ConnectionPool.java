@@ -0,0 +1,316 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of JDBC connections, so a DAO call doesn't pay for a TCP and
+ * login handshake each time.
+ * <p>
+ * borrow hands out a wrapper whose close() gives the connection back, so callers
+ * keep using try-with-resources as if the connection were their own. A pooled
+ * connection is checked with isValid before it's handed out, retired once it's
+ * older than maxLifetime, and closed by a background sweep after sitting idle
+ * for idleTimeout. At most maxSize connections are open or being opened at once;
+ * a borrower waits up to acquireTimeout for one to come free.
+ */
+final class ConnectionPool implements AutoCloseable {
+
+    /** Opens a new physical connection */
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * @param maxSize           most connections open at once
+     * @param acquireTimeoutMs  how long borrow waits for a free connection
+     * @param idleTimeoutMs     idle connections older than this are closed
+     * @param maxLifetimeMs     connections are retired after this long, however busy
+     * @param validationTimeout seconds given to isValid when a connection is borrowed
+     */
+    record Settings(int maxSize, long acquireTimeoutMs, long idleTimeoutMs, long maxLifetimeMs, int validationTimeout) {
+        Settings {
+            if (maxSize < 1) { throw new IllegalArgumentException("Pool size must be at least 1: " + maxSize); }
+            if (acquireTimeoutMs < 0 || idleTimeoutMs < 1 || maxLifetimeMs < 1 || validationTimeout < 0) {
+                throw new IllegalArgumentException("Pool timeouts must be positive");
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the pool's counters
+     *
+     * @param active             connections handed out right now
+     * @param idle               connections waiting in the pool
+     * @param waiting            borrowers waiting for a connection
+     * @param borrowed           connections handed out since the pool started
+     * @param opened             physical connections opened
+     * @param closed             physical connections closed: expired, idle, broken or at shutdown
+     * @param validationFailures pooled connections that failed isValid and were replaced
+     * @param timeouts           borrows that gave up after acquireTimeout
+     * @param averageWaitMicros  mean time borrow took, including opening a connection
+     */
+    record Metrics(int active, int idle, int waiting, long borrowed, long opened, long closed,
+                   long validationFailures, long timeouts, long averageWaitMicros) {
+    }
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final Semaphore permits; // one per connection that may be open
+    private final Deque<Pooled> idle = new ArrayDeque<>(); // most recently returned first
+    private final ScheduledExecutorService evictor;
+    private volatile boolean shutDown;
+
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, Math.min(settings.idleTimeoutMs(), settings.maxLifetimeMs()) / 2);
+        evictor.scheduleWithFixedDelay(this::evict, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands out a pooled connection, opening one if none is idle
+     *
+     * @return a connection to close when done, which returns it to the pool
+     * @throws SQLTransientConnectionException if none came free within acquireTimeout
+     * @throws SQLException                    if a new connection couldn't be opened
+     */
+    Connection borrow() throws SQLException {
+        if (shutDown) { throw new SQLException("Connection pool is closed"); }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.acquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTransientConnectionException("Timed out after " + settings.acquireTimeoutMs()
+                        + "ms waiting for one of " + settings.maxSize() + " database connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database connection", e);
+        }
+
+        try {
+            Pooled pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new Pooled(factory.open());
+                opened.incrementAndGet();
+            }
+            borrowed.incrementAndGet();
+            waitNanos.addAndGet(System.nanoTime() - start);
+            return pooled.lend();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // The most recently used idle connection still fit to hand out, or null
+    private Pooled takeIdle() {
+        while (true) {
+            Pooled pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) { return null; }
+            if (pooled.expired(System.currentTimeMillis())) {
+                discard(pooled);
+            } else if (!pooled.isValid()) {
+                validationFailures.incrementAndGet();
+                discard(pooled);
+            } else {
+                return pooled;
+            }
+        }
+    }
+
+    private void giveBack(Pooled pooled, boolean broken) {
+        try {
+            if (broken || shutDown || pooled.expired(System.currentTimeMillis()) || !pooled.reset()) {
+                discard(pooled);
+                return;
+            }
+            pooled.lastUsed = System.currentTimeMillis();
+            synchronized (idle) {
+                if (!shutDown) { // checked again under the lock so close() can't miss it
+                    idle.addFirst(pooled);
+                    return;
+                }
+            }
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Closes connections that have sat idle too long or outlived maxLifetime. They're
+    // taken out under the lock but closed after it, so a slow close over the network
+    // doesn't hold up borrow and giveBack.
+    void evict() {
+        long now = System.currentTimeMillis();
+        List<Pooled> stale = new ArrayList<>();
+        synchronized (idle) {
+            idle.removeIf(pooled -> {
+                boolean expired = pooled.expired(now) || now - pooled.lastUsed >= settings.idleTimeoutMs();
+                if (expired) { stale.add(pooled); }
+                return expired;
+            });
+        }
+        stale.forEach(this::discard);
+    }
+
+    private void discard(Pooled pooled) {
+        closed.incrementAndGet();
+        try {
+            pooled.connection.close();
+        } catch (SQLException ignored) {
+            // it's being thrown away either way
+        }
+    }
+
+    Metrics metrics() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        long count = borrowed.get();
+        // idle connections don't hold a permit, so every permit taken is a connection out on loan
+        return new Metrics(settings.maxSize() - permits.availablePermits(), idleCount,
+                permits.getQueueLength(), count, opened.get(), closed.get(), validationFailures.get(), timeouts.get(),
+                count == 0 ? 0 : waitNanos.get() / count / 1000);
+    }
+
+    /**
+     * Closes the idle connections and stops the sweep. Connections still out are
+     * closed as they come back.
+     */
+    @Override
+    public void close() {
+        shutDown = true;
+        evictor.shutdownNow();
+        List<Pooled> remaining;
+        synchronized (idle) {
+            remaining = new ArrayList<>(idle);
+            idle.clear();
+        }
+        remaining.forEach(this::discard);
+    }
+
+    // A physical connection and its bookkeeping
+    private final class Pooled {
+        final Connection connection;
+        final long created = System.currentTimeMillis();
+        long lastUsed = created;
+
+        Pooled(Connection connection) {
+            this.connection = connection;
+        }
+
+        boolean expired(long now) {
+            return now - created >= settings.maxLifetimeMs();
+        }
+
+        boolean isValid() {
+            try {
+                return connection.isValid(settings.validationTimeout());
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        // Undoes anything a borrower may have left behind; false if the connection is unusable
+        boolean reset() {
+            try {
+                if (connection.isClosed()) { return false; }
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                connection.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        Connection lend() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, new Loan(this));
+        }
+    }
+
+    // One borrower's handle on a pooled connection; close() returns it instead of closing it
+    private final class Loan implements InvocationHandler {
+        private final Pooled pooled;
+        private boolean returned;
+        private boolean broken;
+
+        Loan(Pooled pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        giveBack(pooled, broken);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || pooled.connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + pooled.connection;
+                }
+                default -> {
+                }
+            }
+            if (returned) { throw new SQLException("Connection has been returned to the pool"); }
+            try {
+                return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                // SQLState class 08 is a connection failure; don't pool the connection again
+                if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                    broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+}
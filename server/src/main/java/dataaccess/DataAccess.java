@@ -1,5 +1,7 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
 import model.AuthData;
 import model.UserData;
 import model.GameData;
@@ -18,4 +20,10 @@ public interface DataAccess {
     Map<Integer, GameData> listGames(String authToken) throws DataAccessException;
     void joinGame(GameData game) throws DataAccessException;
     void updateGame(GameData game) throws DataAccessException;
+    // Logs a move without rewriting the game; getGame replays it on top of the last saved game
+    void appendMove(int gameID, int ply, ChessMove move) throws DataAccessException;
+    // Saves the game at its current ply, kept for seeking and as the new base getGame replays from
+    void saveSnapshot(int gameID, ChessGame game) throws DataAccessException;
+    // The game as it was after the given number of plies, or null if there's no such game
+    ChessGame getPosition(int gameID, int ply) throws DataAccessException;
 }
@@ -9,6 +9,8 @@ public class DatabaseManager {
     private static String dbPassword;
     private static String connectionUrl;
     private static String baseUrl;
+    private static ConnectionPool.Settings poolSettings;
+    private static ConnectionPool pool;
 
     /*
      * Load the database information for the db.properties file.
@@ -31,10 +33,11 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * Borrows a connection to the database from the pool, with the catalog set
+     * based upon the properties specified in db.properties. Connections to the
+     * database should be short-lived, and you must close the connection when you
+     * are done with it, which hands it back to the pool. The easiest way to do
+     * that is with a try-with-resource block.
      * <br/>
      * <code>
      * try (var conn = DatabaseManager.getConnection()) {
@@ -44,13 +47,51 @@ public class DatabaseManager {
      */
     static Connection getConnection() throws DataAccessException {
         try {
-            Connection conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
-            conn.setCatalog(databaseName); // ensure correct schema each time
-            return conn;        } catch (SQLException ex) {
+            return pool().borrow();
+        } catch (SQLException ex) {
             throw new DataAccessException("Error: failed to get connection", ex);
         }
     }
 
+    /**
+     * @return the connection pool's counters, or null before the first connection
+     */
+    static ConnectionPool.Metrics poolMetrics() {
+        ConnectionPool current = pool;
+        return current == null ? null : current.metrics();
+    }
+
+    /**
+     * Closes the connection pool and its idle connections, e.g. when the server
+     * stops. Connections still in use are closed as they're returned; a later
+     * getConnection starts a new pool.
+     */
+    public static synchronized void closePool() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
+    // The pool is made on first use so a server that never touches MySQL opens nothing
+    private static synchronized ConnectionPool pool() {
+        if (pool == null) {
+            pool = new ConnectionPool(DatabaseManager::openConnection, poolSettings);
+        }
+        return pool;
+    }
+
+    private static Connection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
+        try {
+            conn.setCatalog(databaseName); // ensure correct schema each time
+        } catch (SQLException ex) {
+            conn.close();
+            throw ex;
+        }
+        return conn;
+    }
+
     private static void loadPropertiesFromResources() {
         try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
             if (propStream == null) {
@@ -74,6 +115,13 @@ public class DatabaseManager {
         baseUrl = String.format("jdbc:mysql://%s:%d", host, port); // for creating DB
 
         connectionUrl = String.format("jdbc:mysql://%s:%d/%s", host, port, databaseName);
+
+        poolSettings = new ConnectionPool.Settings(
+                Integer.parseInt(props.getProperty("db.pool.maxSize", "10")),
+                Long.parseLong(props.getProperty("db.pool.acquireTimeoutMs", "5000")),
+                Long.parseLong(props.getProperty("db.pool.idleTimeoutMs", "600000")),
+                Long.parseLong(props.getProperty("db.pool.maxLifetimeMs", "1800000")),
+                Integer.parseInt(props.getProperty("db.pool.validationTimeoutSec", "2")));
     }
 
     public static String getBaseUrl() {
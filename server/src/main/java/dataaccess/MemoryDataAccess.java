@@ -1,22 +1,35 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameCodec;
+import chess.Move;
 import model.UserData;
 import model.AuthData;
 import model.GameData;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 public class MemoryDataAccess implements DataAccess {
     private final Map<String, UserData> users = new HashMap<>();
     private final Map<String, AuthData> auths = new HashMap<>();
+    // Saved games are copies, and getGame replays the moves logged since, the same
+    // as the database does; listGames hands back the saved games as they are
     private final Map<Integer, GameData> games = new HashMap<>();
+    private final Map<Integer, NavigableMap<Integer, Integer>> moves = new HashMap<>(); // by gameID, then ply
+    private final Map<Integer, NavigableMap<Integer, byte[]>> snapshots = new HashMap<>(); // GameCodec, by ply
+    private int nextGameID = 1;
 
     @Override
     public void clear() {
         users.clear();
         auths.clear();
         games.clear();
+        moves.clear();
+        snapshots.clear();
     }
 
     @Override
@@ -52,7 +65,18 @@ public class MemoryDataAccess implements DataAccess {
         if (!games.containsKey(game.gameID())) {
             throw new DataAccessException("bad gameID");
         }
-        games.put(game.gameID(), game);
+        games.put(game.gameID(), copy(game));
+    }
+
+    @Override
+    public void appendMove(int gameID, int ply, ChessMove move) throws DataAccessException {
+        if (!games.containsKey(gameID)) {
+            throw new DataAccessException("bad gameID");
+        }
+        var log = moves.computeIfAbsent(gameID, id -> new TreeMap<>());
+        if (log.putIfAbsent(ply, Move.fromChessMove(move)) != null) {
+            throw new DataAccessException("Error: move already recorded");
+        }
     }
 
     @Override
@@ -70,8 +94,13 @@ public class MemoryDataAccess implements DataAccess {
 
     @Override
     public GameData createGame(GameData game) throws DataAccessException {
-        games.put(game.gameID(), game);
-        return game;
+        // numbered like the database's AUTO_INCREMENT, so games from GameService get an ID
+        GameData created = new GameData(nextGameID++, game.whiteUsername(), game.blackUsername(), game.gameName(), game.game());
+        games.put(created.gameID(), copy(created));
+        if (game.game() != null) {
+            saveSnapshot(created.gameID(), game.game());
+        }
+        return created;
     }
 
     @Override
@@ -80,14 +109,18 @@ public class MemoryDataAccess implements DataAccess {
         if (game == null) {
             throw new DataAccessException("Error: bad request");
         }
-        return game;
+        return withMoves(game);
     }
 
     public Map<Integer, GameData> listGames(String authToken) throws DataAccessException {
         if (!auths.containsKey(authToken)) {
             throw new DataAccessException("Error: unauthorized");
         }
-        return games;
+        var result = new HashMap<Integer, GameData>();
+        for (GameData game : games.values()) {
+            result.put(game.gameID(), copy(game));
+        }
+        return result;
     }
 
     @Override
@@ -95,6 +128,86 @@ public class MemoryDataAccess implements DataAccess {
         if (!games.containsKey(game.gameID())) {
             throw new DataAccessException("Error: bad request");
         }
-        games.put(game.gameID(), game);
+        games.put(game.gameID(), copy(game));
+    }
+
+    @Override
+    public void saveSnapshot(int gameID, ChessGame game) throws DataAccessException {
+        GameData saved = games.get(gameID);
+        if (saved == null) {
+            throw new DataAccessException("bad gameID");
+        }
+        byte[] bytes = GameCodec.encode(game);
+        snapshots.computeIfAbsent(gameID, id -> new TreeMap<>()).put(game.getPly(), bytes);
+        if (saved.game() == null || saved.game().getPly() <= game.getPly()) {
+            games.put(gameID, new GameData(gameID, saved.whiteUsername(), saved.blackUsername(), saved.gameName(),
+                    GameCodec.decode(bytes)));
+        }
+    }
+
+    @Override
+    public ChessGame getPosition(int gameID, int ply) throws DataAccessException {
+        GameData saved = games.get(gameID);
+        if (saved == null) {
+            return null;
+        }
+        // the nearest snapshot at or before the ply; the saved game counts as one too
+        ChessGame game = snapshotAt(gameID, ply);
+        if (saved.game() != null && saved.game().getPly() <= ply && (game == null || game.getPly() < saved.game().getPly())) {
+            game = copy(saved).game();
+        }
+        if (game == null) {
+            throw new DataAccessException("Error: no history before ply " + ply);
+        }
+
+        game = replay(gameID, game, ply);
+        if (game.getPly() != ply) {
+            throw new DataAccessException("Error: the game hasn't reached ply " + ply);
+        }
+        return game;
+    }
+
+    private GameData withMoves(GameData saved) throws DataAccessException {
+        GameData game = copy(saved);
+        if (game.game() == null) {
+            return game;
+        }
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                replay(game.gameID(), game.game(), Integer.MAX_VALUE));
+    }
+
+    // Plays the logged moves before the given ply onto a snapshot, starting from an
+    // earlier snapshot when positions from before it can still repeat
+    private ChessGame replay(int gameID, ChessGame snapshot, int until) throws DataAccessException {
+        var log = moves.get(gameID);
+        if (log == null) {
+            return snapshot;
+        }
+        ChessGame earlier = snapshot.getHalfmoveClock() == 0 ? null : snapshotAt(gameID, MoveLog.historyStart(snapshot));
+        ChessGame game = MoveLog.withHistory(snapshot, earlier, log.tailMap(earlier == null ? snapshot.getPly() : earlier.getPly()));
+
+        boolean replayed = false;
+        for (var entry : log.subMap(game.getPly(), true, until, false).entrySet()) {
+            replayed |= MoveLog.replay(game, entry.getKey(), entry.getValue());
+        }
+        if (replayed) {
+            MoveLog.finish(game);
+        }
+        return game;
+    }
+
+    // The nearest saved snapshot at or before the ply, or null
+    private ChessGame snapshotAt(int gameID, int ply) {
+        var saves = snapshots.get(gameID);
+        var floor = saves == null ? null : saves.floorEntry(ply);
+        return floor == null ? null : GameCodec.decode(floor.getValue());
+    }
+
+    private static GameData copy(GameData game) {
+        if (game.game() == null) {
+            return game;
+        }
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                GameCodec.decode(GameCodec.encode(game.game())));
     }
 }
@@ -0,0 +1,95 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import chess.InvalidMoveException;
+import chess.Move;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Rebuilds a game from its stored snapshot and the moves logged after it.
+ * Moves are logged one row per ply as Move's packed int, so a move costs one
+ * small insert however long the game is.
+ */
+final class MoveLog {
+
+    private MoveLog() {
+    }
+
+    /**
+     * Plays a logged move on top of a snapshot. Moves from before the snapshot
+     * was taken are skipped.
+     *
+     * @param game the snapshot, moved forward by the moves replayed so far
+     * @param ply  the ply the move was played at
+     * @param move the packed move
+     * @return whether the move was played
+     * @throws DataAccessException if the log skips a ply or has a move that isn't legal
+     */
+    static boolean replay(ChessGame game, int ply, int move) throws DataAccessException {
+        if (ply < game.getPly()) {
+            return false;
+        }
+        if (ply > game.getPly()) {
+            throw new DataAccessException("Error: move log skips from ply " + game.getPly() + " to " + ply);
+        }
+        try {
+            game.makeMove(Move.toChessMove(move));
+        } catch (InvalidMoveException e) {
+            throw new DataAccessException("Error: bad move in log at ply " + ply, e);
+        }
+        return true;
+    }
+
+    /**
+     * The ply a snapshot's repetition history starts at. GameCodec doesn't store
+     * the history, but nothing from before the last capture or pawn move can
+     * repeat, so replaying from a snapshot at or before this ply rebuilds it.
+     *
+     * @return 0 or more, the ply just after the last capture or pawn move
+     */
+    static int historyStart(ChessGame snapshot) {
+        return Math.max(0, snapshot.getPly() - snapshot.getHalfmoveClock());
+    }
+
+    /**
+     * Brings an earlier snapshot, taken at or before historyStart, up to a later
+     * one by replaying the moves in between, so the game that comes back has the
+     * later one's repetition history too.
+     *
+     * @param snapshot the snapshot to load
+     * @param earlier  an earlier snapshot, or null if there isn't one
+     * @param moves    the logged moves by ply, from the earlier snapshot's ply on
+     * @return the replayed game, or the snapshot itself when there's nothing to
+     * replay or the moves don't lead to it, e.g. after a position was set up by hand
+     */
+    static ChessGame withHistory(ChessGame snapshot, ChessGame earlier, SortedMap<Integer, Integer> moves) {
+        if (earlier == null || earlier.getPly() >= snapshot.getPly()) {
+            return snapshot;
+        }
+        try {
+            for (Map.Entry<Integer, Integer> entry : moves.headMap(snapshot.getPly()).entrySet()) {
+                replay(earlier, entry.getKey(), entry.getValue());
+            }
+        } catch (DataAccessException e) {
+            return snapshot;
+        }
+        earlier.setGameOver(snapshot.isGameOver());
+        boolean same = earlier.getPly() == snapshot.getPly()
+                && Arrays.equals(GameCodec.encode(earlier), GameCodec.encode(snapshot));
+        return same ? earlier : snapshot;
+    }
+
+    /**
+     * Marks the game over when the replayed moves ended it. Only resignations are
+     * kept in the snapshot; checkmate and draws follow from the moves themselves.
+     */
+    static void finish(ChessGame game) {
+        if (!game.isGameOver() && game.evaluateStatus().isGameOver()) {
+            game.setGameOver(true);
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package dataaccess;
 
-import com.google.gson.Gson;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameCodec;
+import chess.Move;
+import com.google.gson.JsonParseException;
 import model.*;
 import org.mindrot.jbcrypt.BCrypt;
+import serialization.Json;
 
 import java.sql.*;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static java.sql.Statement.RETURN_GENERATED_KEYS;
 import static java.sql.Types.NULL;
@@ -28,6 +34,8 @@ public class MySqlDataAccess implements DataAccess {
             stmt.execute("SET FOREIGN_KEY_CHECKS = 0");
 
             stmt.executeUpdate("TRUNCATE TABLE auth");
+            stmt.executeUpdate("TRUNCATE TABLE game_move");
+            stmt.executeUpdate("TRUNCATE TABLE game_snapshot");
             stmt.executeUpdate("TRUNCATE TABLE game");
             stmt.executeUpdate("TRUNCATE TABLE user");
 
@@ -123,35 +131,44 @@ public class MySqlDataAccess implements DataAccess {
 
     @Override
     public GameData createGame(GameData game) throws DataAccessException {
-        String json = new Gson().toJson(game);
-        var statement = "INSERT INTO game (whiteUsername, blackUsername, gameName, gameJSON) VALUES (?, ?, ?, ?)";
-        int id = executeUpdate(statement, game.whiteUsername(), game.blackUsername(), game.gameName(), json);
-        // System.out.println(">>> DAO.createGame(): returned id=" + id);
-        return new GameData(id, game.whiteUsername(), game.blackUsername(), game.gameName(), game.game());
+        var statement = "INSERT INTO game (whiteUsername, blackUsername, gameName, gameState, snapshotPly) VALUES (?, ?, ?, ?, ?)";
+        byte[] state = GameCodec.encode(game.game());
+        int ply = game.game().getPly();
+        // one transaction, so a game is never left without its first snapshot
+        try (var conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int id = executeUpdate(conn, statement, game.whiteUsername(), game.blackUsername(), game.gameName(),
+                        state, ply);
+                // the first snapshot, so every ply of the game can be sought to
+                executeUpdate(conn, "INSERT INTO game_snapshot (gameID, ply, gameState) VALUES (?, ?, ?)", id, ply, state);
+                conn.commit();
+                // System.out.println(">>> DAO.createGame(): returned id=" + id);
+                return new GameData(id, game.whiteUsername(), game.blackUsername(), game.gameName(), game.game());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw failure(e);
+        }
     }
 
     @Override
     public GameData getGame(Integer gameID) throws DataAccessException {
-        // System.out.println(">>> DAO.getGame(): checking gameID=" + gameID);
-        var statement = "SELECT gameID, whiteUsername, blackUsername, gameName, gameJSON FROM game WHERE gameID=?";
+        var statement = "SELECT gameID, whiteUsername, blackUsername, gameName, gameState FROM game WHERE gameID=?";
         try (var conn = DatabaseManager.getConnection();
              var ps = conn.prepareStatement(statement)) {
             ps.setInt(1, gameID);
             try (var rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    String json = rs.getString("gameJSON");
-                    GameData parsed = new Gson().fromJson(json, GameData.class);
-                    return new GameData(
-                            rs.getInt("gameID"),
-                            rs.getString("whiteUsername"),
-                            rs.getString("blackUsername"),
-                            rs.getString("gameName"),
-                            parsed.game()
-                    );
-                } else {
-                    // System.out.println(">>> DAO.getGame(): no game found for ID=" + gameID);
+                if (!rs.next()) {
                     return null;
                 }
+                GameData saved = readGame(rs);
+                return new GameData(saved.gameID(), saved.whiteUsername(), saved.blackUsername(), saved.gameName(),
+                        replay(conn, gameID, saved.game(), Integer.MAX_VALUE));
             }
         } catch (SQLException e) {
             throw new DataAccessException("Error: getting game: " + e.getMessage());
@@ -165,31 +182,20 @@ public class MySqlDataAccess implements DataAccess {
             throw new DataAccessException("unauthorized");
         }
 
-        var result = new HashMap<Integer, GameData>();
-        var statement = "SELECT gameID, whiteUsername, blackUsername, gameName, gameJSON FROM game";
+        // just the game rows: each game is as of its last snapshot, and getGame replays the moves since
+        var statement = "SELECT gameID, whiteUsername, blackUsername, gameName, gameState FROM game";
         try (var conn = DatabaseManager.getConnection();
              var ps = conn.prepareStatement(statement);
              var rs = ps.executeQuery()) {
+            var games = new HashMap<Integer, GameData>();
             while (rs.next()) {
-                int id = rs.getInt("gameID");
-                String json = rs.getString("gameJSON");
-                GameData game = new Gson().fromJson(json, GameData.class);
-
-                // ensure usernames match DB columns in case JSON is outdated
-                game = new GameData(
-                        id,
-                        rs.getString("whiteUsername"),
-                        rs.getString("blackUsername"),
-                        rs.getString("gameName"),
-                        game.game()
-                );
-
-                result.put(id, game);
+                GameData game = readGame(rs);
+                games.put(game.gameID(), game);
             }
+            return games;
         } catch (SQLException e) {
             throw new DataAccessException("listing games: " + e.getMessage());
         }
-        return result;
     }
 
 
@@ -216,16 +222,16 @@ public class MySqlDataAccess implements DataAccess {
 
         // System.out.println(">>> DAO.joinGame(): writing white=" + white + ", black=" + black);
 
-        String json = new Gson().toJson(new GameData(game.gameID(), white, black, game.gameName(), game.game()));
-        var statement = "UPDATE game SET whiteUsername=?, blackUsername=?, gameJSON=? WHERE gameID=?";
+        var statement = "UPDATE game SET whiteUsername=?, blackUsername=?, gameState=?, snapshotPly=? WHERE gameID=?";
 
         try (var conn = DatabaseManager.getConnection();
              var ps = conn.prepareStatement(statement)) {
 
             ps.setString(1, white);
             ps.setString(2, black);
-            ps.setString(3, json);
-            ps.setInt(4, game.gameID());
+            ps.setBytes(3, GameCodec.encode(game.game()));
+            ps.setInt(4, game.game().getPly());
+            ps.setInt(5, game.gameID());
 
             int rowsUpdated = ps.executeUpdate();
             if (rowsUpdated == 0 && getGame(game.gameID()) == null) {
@@ -239,11 +245,9 @@ public class MySqlDataAccess implements DataAccess {
     }
     @Override
     public void updateGame(GameData game) throws DataAccessException {
-        String json = new Gson().toJson(game);
-
         String statement = """
         UPDATE game
-        SET whiteUsername=?, blackUsername=?, gameName=?, gameJSON=?
+        SET whiteUsername=?, blackUsername=?, gameName=?, gameState=?, snapshotPly=?
         WHERE gameID=?
         """;
 
@@ -253,8 +257,9 @@ public class MySqlDataAccess implements DataAccess {
             ps.setString(1, game.whiteUsername());
             ps.setString(2, game.blackUsername());
             ps.setString(3, game.gameName());
-            ps.setString(4, json);
-            ps.setInt(5, game.gameID());
+            ps.setBytes(4, GameCodec.encode(game.game()));
+            ps.setInt(5, game.game().getPly());
+            ps.setInt(6, game.gameID());
 
             int rowsUpdated = ps.executeUpdate();
             if (rowsUpdated == 0) {
@@ -267,35 +272,179 @@ public class MySqlDataAccess implements DataAccess {
     }
 
 
+    @Override
+    public void appendMove(int gameID, int ply, ChessMove move) throws DataAccessException {
+        var statement = "INSERT INTO game_move (gameID, ply, move) VALUES (?, ?, ?)";
+        executeUpdate(statement, gameID, ply, Move.fromChessMove(move));
+    }
+
+    @Override
+    public void saveSnapshot(int gameID, ChessGame game) throws DataAccessException {
+        byte[] state = GameCodec.encode(game);
+        var snapshot = """
+        INSERT INTO game_snapshot (gameID, ply, gameState) VALUES (?, ?, ?)
+        ON DUPLICATE KEY UPDATE gameState = VALUES(gameState)
+        """;
+        executeUpdate(snapshot, gameID, game.getPly(), state);
+        // the game row moves up too, so reading the game replays at most one interval of moves
+        var latest = "UPDATE game SET gameState=?, snapshotPly=? WHERE gameID=? AND snapshotPly<=?";
+        executeUpdate(latest, state, game.getPly(), gameID, game.getPly());
+    }
+
+    @Override
+    public ChessGame getPosition(int gameID, int ply) throws DataAccessException {
+        // the nearest snapshot at or before the ply, counting the game row's own
+        var snapshot = """
+        SELECT ply, gameState FROM game_snapshot WHERE gameID=? AND ply<=?
+        UNION ALL
+        SELECT snapshotPly, gameState FROM game WHERE gameID=? AND snapshotPly<=?
+        ORDER BY ply DESC LIMIT 1
+        """;
+        try (var conn = DatabaseManager.getConnection()) {
+            ChessGame game;
+            try (var ps = conn.prepareStatement(snapshot)) {
+                ps.setInt(1, gameID);
+                ps.setInt(2, ply);
+                ps.setInt(3, gameID);
+                ps.setInt(4, ply);
+                try (var rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        if (!gameExists(conn, gameID)) {
+                            return null;
+                        }
+                        throw new DataAccessException("Error: no history before ply " + ply);
+                    }
+                    game = decode(gameID, rs.getBytes("gameState"));
+                }
+            }
+
+            game = replay(conn, gameID, game, ply);
+            if (game.getPly() != ply) {
+                throw new DataAccessException("Error: the game hasn't reached ply " + ply);
+            }
+            return game;
+        } catch (SQLException e) {
+            throw new DataAccessException("Error: getting position: " + e.getMessage());
+        }
+    }
+
+    // Plays the logged moves before the given ply onto a snapshot. GameCodec doesn't keep
+    // the repetition history, so when positions from before the snapshot can still repeat
+    // (its halfmove clock isn't 0), replay starts from an earlier snapshot taken at or
+    // before the last capture or pawn move, and makeMove rebuilds the history.
+    private static ChessGame replay(Connection conn, int gameID, ChessGame snapshot, int until)
+            throws SQLException, DataAccessException {
+        ChessGame earlier = snapshot.getHalfmoveClock() == 0 ? null
+                : snapshotAt(conn, gameID, MoveLog.historyStart(snapshot));
+        var moves = moves(conn, gameID, earlier == null ? snapshot.getPly() : earlier.getPly(), until);
+        ChessGame game = MoveLog.withHistory(snapshot, earlier, moves);
+
+        boolean replayed = false;
+        for (var entry : moves.tailMap(game.getPly()).entrySet()) {
+            replayed |= MoveLog.replay(game, entry.getKey(), entry.getValue());
+        }
+        if (replayed) {
+            MoveLog.finish(game);
+        }
+        return game;
+    }
+
+    // The nearest game_snapshot at or before the ply, or null
+    private static ChessGame snapshotAt(Connection conn, int gameID, int ply) throws SQLException {
+        var statement = "SELECT gameState FROM game_snapshot WHERE gameID=? AND ply<=? ORDER BY ply DESC LIMIT 1";
+        try (var ps = conn.prepareStatement(statement)) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, ply);
+            try (var rs = ps.executeQuery()) {
+                return rs.next() ? decode(gameID, rs.getBytes("gameState")) : null;
+            }
+        }
+    }
+
+    // The logged moves by ply, from `from` up to but not including `until`
+    private static TreeMap<Integer, Integer> moves(Connection conn, int gameID, int from, int until) throws SQLException {
+        var statement = "SELECT ply, move FROM game_move WHERE gameID=? AND ply>=? AND ply<? ORDER BY ply";
+        var moves = new TreeMap<Integer, Integer>();
+        try (var ps = conn.prepareStatement(statement)) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, from);
+            ps.setInt(3, until);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    moves.put(rs.getInt("ply"), rs.getInt("move"));
+                }
+            }
+        }
+        return moves;
+    }
+
+    private static boolean gameExists(Connection conn, int gameID) throws SQLException {
+        try (var ps = conn.prepareStatement("SELECT 1 FROM game WHERE gameID=?")) {
+            ps.setInt(1, gameID);
+            try (var rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static GameData readGame(ResultSet rs) throws SQLException {
+        int id = rs.getInt("gameID");
+        return new GameData(
+                id,
+                rs.getString("whiteUsername"),
+                rs.getString("blackUsername"),
+                rs.getString("gameName"),
+                decode(id, rs.getBytes("gameState"))
+        );
+    }
+
+    private static ChessGame decode(int gameID, byte[] state) throws SQLException {
+        try {
+            return GameCodec.decode(state);
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("unreadable game " + gameID + ": " + e.getMessage(), e);
+        }
+    }
+
     private int executeUpdate(String statement, Object... params) throws DataAccessException {
         try (Connection conn = DatabaseManager.getConnection()) {
-            try (PreparedStatement ps = conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
-                for (int i = 0; i < params.length; i++) {
-                    Object param = params[i];
-                    if (param instanceof String p) { ps.setString(i + 1, p); }
-                    else if (param instanceof Integer p) { ps.setInt(i + 1, p); }
-                    // else if (param instanceof PetType p) { ps.setString(i + 1, p.toString()); }
-                    else if (param == null) { ps.setNull(i + 1, NULL); }
-                }
-                ps.executeUpdate();
-                ResultSet rs = ps.getGeneratedKeys();
+            return executeUpdate(conn, statement, params);
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+    }
 
+    // The same on a connection the caller holds, e.g. to run several updates in one transaction
+    private static int executeUpdate(Connection conn, String statement, Object... params) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < params.length; i++) {
+                Object param = params[i];
+                if (param instanceof String p) { ps.setString(i + 1, p); }
+                else if (param instanceof Integer p) { ps.setInt(i + 1, p); }
+                else if (param instanceof byte[] p) { ps.setBytes(i + 1, p); }
+                // else if (param instanceof PetType p) { ps.setString(i + 1, p.toString()); }
+                else if (param == null) { ps.setNull(i + 1, NULL); }
+            }
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
                     return rs.getInt(1);
                 }
                 return 0;
             }
-        } catch (SQLException e) {
-            String msg = e.getMessage().toLowerCase();
-            if (msg.contains("duplicate") || msg.contains("unique")) {
-                throw new DataAccessException("unable to insert duplicate");
-            } else if (msg.contains("foreign key")) {
-                throw new DataAccessException("foreign key failure");
-            }
-            throw new DataAccessException("database failure: " + e.getMessage());
         }
     }
 
+    private static DataAccessException failure(SQLException e) {
+        String msg = e.getMessage().toLowerCase();
+        if (msg.contains("duplicate") || msg.contains("unique")) {
+            return new DataAccessException("unable to insert duplicate");
+        } else if (msg.contains("foreign key")) {
+            return new DataAccessException("foreign key failure");
+        }
+        return new DataAccessException("database failure: " + e.getMessage());
+    }
+
     private final String[] createStatements = {
         """
         CREATE TABLE IF NOT EXISTS user (
@@ -317,10 +466,30 @@ public class MySqlDataAccess implements DataAccess {
             whiteUsername VARCHAR(255),
             blackUsername VARCHAR(255),
             gameName VARCHAR(255),
-            gameJSON TEXT NOT NULL,
+            gameState BLOB NOT NULL,
+            snapshotPly INT NOT NULL DEFAULT 0,
             FOREIGN KEY (whiteUsername) REFERENCES user(username) ON DELETE SET NULL,
             FOREIGN KEY (blackUsername) REFERENCES user(username) ON DELETE SET NULL
         )
+        """,
+        """
+        CREATE TABLE IF NOT EXISTS game_snapshot (
+            gameID INT NOT NULL,
+            ply INT NOT NULL,
+            gameState BLOB NOT NULL,
+            PRIMARY KEY (gameID, ply),
+            FOREIGN KEY (gameID) REFERENCES game(gameID) ON DELETE CASCADE
+        )
+        """,
+        """
+        CREATE TABLE IF NOT EXISTS game_move (
+            gameID INT NOT NULL,
+            ply INT NOT NULL,
+            move INT NOT NULL,
+            playedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+            PRIMARY KEY (gameID, ply),
+            FOREIGN KEY (gameID) REFERENCES game(gameID) ON DELETE CASCADE
+        )
         """
     };
 
@@ -341,6 +510,13 @@ public class MySqlDataAccess implements DataAccess {
                     preparedStatement.executeUpdate();
                 }
             }
+            migrateGameJson(conn);
+            if (!hasColumn(conn, "game", "snapshotPly")) {
+                try (var stmt = conn.createStatement()) {
+                    stmt.executeUpdate("ALTER TABLE game ADD COLUMN snapshotPly INT NOT NULL DEFAULT 0");
+                }
+            }
+            migrateSnapshots(conn);
             // System.out.println("Database configuration complete!");
         } catch (SQLException ex) {
             // System.err.println("SQLException occurred: " + ex.getMessage());
@@ -348,4 +524,93 @@ public class MySqlDataAccess implements DataAccess {
             throw new DataAccessException("Unable to configure database.", ex);
         }
     }
-}
\ No newline at end of file
+
+    /*
+     * Games used to be stored as Gson JSON in a gameJSON column. Tables from then get
+     * a gameState column, every row is re-encoded with GameCodec, and gameJSON is
+     * dropped once nothing is left to convert. MySQL has no ADD COLUMN IF NOT EXISTS,
+     * so the columns are looked up in information_schema. A run that fails part way
+     * leaves gameJSON in place and the next start picks up the rows still missing a state.
+     */
+    private void migrateGameJson(Connection conn) throws SQLException, DataAccessException {
+        if (!hasColumn(conn, "game", "gameJSON")) {
+            return;
+        }
+        if (!hasColumn(conn, "game", "gameState")) {
+            try (var stmt = conn.createStatement()) {
+                stmt.executeUpdate("ALTER TABLE game ADD COLUMN gameState BLOB");
+            }
+        }
+
+        try (var select = conn.prepareStatement("SELECT gameID, gameJSON FROM game WHERE gameState IS NULL");
+             var update = conn.prepareStatement("UPDATE game SET gameState=? WHERE gameID=?");
+             var rs = select.executeQuery()) {
+            while (rs.next()) {
+                GameData old = Json.GSON.fromJson(rs.getString("gameJSON"), GameData.class);
+                ChessGame game = old == null || old.game() == null ? new ChessGame() : old.game();
+                update.setBytes(1, GameCodec.encode(game));
+                update.setInt(2, rs.getInt("gameID"));
+                update.addBatch();
+            }
+            update.executeBatch();
+        } catch (JsonParseException e) {
+            throw new DataAccessException("Unable to convert a stored game: " + e.getMessage(), e);
+        }
+
+        try (var stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE game MODIFY gameState BLOB NOT NULL");
+            stmt.executeUpdate("ALTER TABLE game DROP COLUMN gameJSON");
+        }
+    }
+
+    /*
+     * Games saved before the move log are snapshots with no moves after them, but
+     * snapshotPly came in as 0 and they have no game_snapshot row to seek from. Each
+     * such row gets its snapshotPly from the stored game and a matching snapshot.
+     * Every game made since has a snapshot from createGame, so this finds nothing
+     * once it has run, and a run that fails part way is finished by the next start.
+     */
+    private void migrateSnapshots(Connection conn) throws SQLException {
+        var missing = """
+        SELECT g.gameID, g.gameState FROM game g
+        WHERE NOT EXISTS (SELECT 1 FROM game_snapshot s WHERE s.gameID = g.gameID)
+        """;
+        try (var select = conn.prepareStatement(missing);
+             var update = conn.prepareStatement("UPDATE game SET snapshotPly=? WHERE gameID=?");
+             var insert = conn.prepareStatement("INSERT INTO game_snapshot (gameID, ply, gameState) VALUES (?, ?, ?)");
+             var rs = select.executeQuery()) {
+            boolean any = false;
+            while (rs.next()) {
+                int id = rs.getInt("gameID");
+                byte[] state = rs.getBytes("gameState");
+                int ply = decode(id, state).getPly();
+                update.setInt(1, ply);
+                update.setInt(2, id);
+                update.addBatch();
+                insert.setInt(1, id);
+                insert.setInt(2, ply);
+                insert.setBytes(3, state);
+                insert.addBatch();
+                any = true;
+            }
+            if (any) {
+                update.executeBatch();
+                insert.executeBatch();
+            }
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        var statement = """
+        SELECT 1 FROM information_schema.COLUMNS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?
+        """;
+        try (var ps = conn.prepareStatement(statement)) {
+            ps.setString(1, table);
+            ps.setString(2, column);
+            try (var rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package server;
 
 import com.google.gson.Gson;
+import serialization.Json;
 import io.javalin.http.Context;
 import service.AdminService;
 import model.requestsandresults.EmptyResult;
@@ -8,7 +9,7 @@ import service.ServiceException;
 
 public class AdminHandler {
     private final AdminService adminService;
-    private final Gson gson = new Gson();
+    private final Gson gson = Json.GSON;
 
     public AdminHandler(AdminService adminService) {
         this.adminService = adminService;
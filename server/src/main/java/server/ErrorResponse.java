@@ -1,11 +1,12 @@
 package server;
 
 import com.google.gson.Gson;
+import serialization.Json;
 import io.javalin.http.Context;
 import java.util.Map;
 
 public class ErrorResponse {
-    private static final Gson GSON = new Gson();
+    private static final Gson GSON = Json.GSON;
 
     public static void sendError(Context ctx, String message) {
         String lower = message.toLowerCase();
@@ -1,6 +1,7 @@
 package server;
 
 import com.google.gson.Gson;
+import serialization.Json;
 import io.javalin.http.Context;
 import model.requestsandresults.*;
 import service.*;
@@ -9,7 +10,7 @@ import java.util.Map;
 
 public class GameHandler {
     private final GameService gameService;
-    private final Gson gson = new Gson();
+    private final Gson gson = Json.GSON;
 
     public GameHandler(GameService gameService) {
         this.gameService = gameService;
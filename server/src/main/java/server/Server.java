@@ -1,6 +1,7 @@
 package server;
 
 import dataaccess.DataAccess;
+import dataaccess.DatabaseManager;
 import dataaccess.MemoryDataAccess;
 import dataaccess.MySqlDataAccess;
 import io.javalin.*;
@@ -12,6 +13,7 @@ import websocket.WebSocketServer;
 public class Server {
 
     private final Javalin javalin;
+    private final boolean usesDatabase;
 
     public Server() {
         javalin = Javalin.create(config -> config.staticFiles.add("web"));
@@ -23,6 +25,7 @@ public class Server {
             e.printStackTrace();
             dataAccess = new MemoryDataAccess();
         }
+        usesDatabase = dataAccess instanceof MySqlDataAccess;
 
         AdminHandler adminHandler = new AdminHandler(new AdminService(dataAccess));
         UserHandler userHandler = new UserHandler(new UserService(dataAccess));
@@ -55,5 +58,8 @@ public class Server {
 
     public void stop() {
         javalin.stop();
+        if (usesDatabase) {
+            DatabaseManager.closePool();
+        }
     }
 }
@@ -1,6 +1,7 @@
 package server;
 
 import com.google.gson.Gson;
+import serialization.Json;
 import io.javalin.http.Context;
 import service.*;
 import model.requestsandresults.EmptyResult;
@@ -11,7 +12,7 @@ import model.requestsandresults.UserResult;
 
 public class UserHandler {
     private final UserService userService;
-    private final Gson gson = new Gson();
+    private final Gson gson = Json.GSON;
 
     public UserHandler(UserService userService) {
         this.userService = userService;
@@ -1,6 +1,7 @@
 package service;
 
 import chess.ChessGame;
+import chess.ChessMove;
 import dataaccess.DataAccess;
 import dataaccess.MemoryDataAccess;
 import dataaccess.DataAccessException;
@@ -14,14 +15,30 @@ import java.util.ArrayList;
 import java.util.Map;
 
 public class GameService {
+    /** Plies between saved snapshots unless chess.snapshot.interval says otherwise */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 32;
+
     private final DataAccess dataAccess;
+    private final int snapshotInterval;
 
     public GameService() {
-        this.dataAccess = new MemoryDataAccess();
+        this(new MemoryDataAccess());
     }
 
     public GameService(DataAccess dataAccess) {
+        this(dataAccess, Integer.getInteger("chess.snapshot.interval", DEFAULT_SNAPSHOT_INTERVAL));
+    }
+
+    /**
+     * @param snapshotInterval how many plies apart the game is saved in full; reading
+     *                         a game or seeking to a ply replays at most this many moves
+     */
+    public GameService(DataAccess dataAccess, int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be at least 1: " + snapshotInterval);
+        }
         this.dataAccess = dataAccess;
+        this.snapshotInterval = snapshotInterval;
     }
 
     public CreateGameResult createGame(CreateGameRequest request) throws ServiceException {
@@ -115,4 +132,46 @@ public class GameService {
         }
     }
 
+    /**
+     * Saves a move as one row of the game's move log instead of rewriting the
+     * whole game; getGame plays it back on top of the last saved game. Every
+     * snapshotInterval plies the game is saved in full as well.
+     *
+     * @param ply  the game's ply before the move, see ChessGame.getPly
+     * @param game the game after the move
+     */
+    public void recordMove(int gameID, int ply, ChessMove move, ChessGame game) throws ServiceException {
+        try {
+            dataAccess.appendMove(gameID, ply, move);
+            if (game.getPly() % snapshotInterval == 0) {
+                dataAccess.saveSnapshot(gameID, game);
+            }
+        } catch (DataAccessException e) {
+            throw new ServiceException("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets a game as it was part way through, e.g. for replaying it move by move.
+     * The position comes from the nearest snapshot before it plus at most
+     * snapshotInterval logged moves, however long the game is.
+     *
+     * @param ply how many plies into the game, 0 for the starting position
+     * @return the game after that many plies
+     */
+    public ChessGame getPosition(int gameID, int ply) throws ServiceException {
+        if (ply < 0) {
+            throw new ServiceException("Error: bad request");
+        }
+        try {
+            ChessGame game = dataAccess.getPosition(gameID, ply);
+            if (game == null) {
+                throw new ServiceException("Error: bad gameID");
+            }
+            return game;
+        } catch (DataAccessException e) {
+            throw new ServiceException("Error: " + e.getMessage());
+        }
+    }
+
 }
@@ -2,6 +2,9 @@ package websocket;
 
 import chess.ChessGame;
 import chess.ChessMove;
+import chess.GameStatus;
+import chess.San;
+import chess.engine.Evaluation;
 import io.javalin.websocket.*;
 import model.GameData;
 import org.jetbrains.annotations.NotNull;
@@ -9,6 +12,7 @@ import service.GameService;
 import service.UserService;
 import websocket.commands.*;
 import com.google.gson.Gson;
+import serialization.Json;
 import websocket.messages.*;
 
 import static chess.ChessGame.TeamColor.*;
@@ -16,7 +20,7 @@ import static chess.ChessGame.TeamColor.*;
 public class WebSocketServer implements WsConnectHandler, WsMessageHandler, WsCloseHandler {
 
     private final ConnectionManager connections = new ConnectionManager();
-    private final Gson gson = new Gson();
+    private final Gson gson = Json.GSON;
     private final GameService gameService;
     private final UserService userService;
 
@@ -34,13 +38,11 @@ public class WebSocketServer implements WsConnectHandler, WsMessageHandler, WsCl
     @Override
     public void handleMessage(WsMessageContext ctx) {
         var json = ctx.message();
+        // the shared Gson reads a MAKE_MOVE straight into a MakeMoveCommand
         UserGameCommand command = gson.fromJson(json, UserGameCommand.class);
         switch (command.getCommandType()) {
             case CONNECT -> onConnect(ctx, command);
-            case MAKE_MOVE -> {
-                MakeMoveCommand mCommand = gson.fromJson(json, MakeMoveCommand.class);
-                onMakeMove(ctx, mCommand);
-            }
+            case MAKE_MOVE -> onMakeMove(ctx, (MakeMoveCommand) command);
             case LEAVE -> onLeave(ctx, command);
             case RESIGN -> onResign(ctx, command);
         }
@@ -70,8 +72,7 @@ public class WebSocketServer implements WsConnectHandler, WsMessageHandler, WsCl
             connections.addConnection(gameID, username, ctx);
 
             //Send loadGame back to this user
-            LoadGameMessage load = new LoadGameMessage(game);
-            ctx.send(gson.toJson(load));
+            ctx.send(gson.toJson(loadGameFor(username, game)));
 
             // Send notificiation to others
             String role;
@@ -135,7 +136,19 @@ public class WebSocketServer implements WsConnectHandler, WsMessageHandler, WsCl
                 sendError(ctx, "illegal move");
                 return;
             }
+            String san = San.toSan(chess, move); // named before it's played, e.g. "Nbd7" or "Qxf7#"
+            int ply = chess.getPly();
             chess.makeMove(move);
+
+            // One pass of the move generator covers check, checkmate, stalemate and draws
+            // for the player who moves next; the mover can't be mated by their own move
+            GameStatus status = chess.evaluateStatus();
+            if (status.isGameOver()) {
+                chess.setGameOver(true);
+            }
+            // a single row in the move log, plus a snapshot every so often; the end of
+            // the game follows from the moves
+            gameService.recordMove(game.gameID(), ply, move, chess);
             GameData updated = new GameData(
                     game.gameID(),
                     game.whiteUsername(),
@@ -143,45 +156,34 @@ public class WebSocketServer implements WsConnectHandler, WsMessageHandler, WsCl
                     game.gameName(),
                     chess
             );
-            gameService.updateGame(updated);
 
-            LoadGameMessage loadMsg = new LoadGameMessage(updated);
-            broadcastToAll(cmd.getGameID(), loadMsg); // Send notification to all
-            String formattedMove = moveToString(move);
-            NotificationMessage note = new NotificationMessage(username + " moved " + formattedMove);
+            broadcastLoadGame(updated); // Send the new board to all
+            NotificationMessage note = new NotificationMessage(username + " moved " + san);
             broadcastToOthers(cmd.getGameID(), ctx, note); // Send notification to others
 
-            // Check for checkmate first
-            boolean whiteCM = chess.isInCheckmate(WHITE);
-            boolean blackCM = chess.isInCheckmate(BLACK);
-            boolean whiteSM = chess.isInStalemate(WHITE);
-            boolean blackSM = chess.isInStalemate(BLACK);
-            if (whiteCM || blackCM) { // Checkmate
-                chess.setGameOver(true);
-                gameService.updateGame(updated); //MAYBE change this later
-
-                String loserName = whiteCM ? game.whiteUsername() : game.blackUsername();
-                NotificationMessage cmNote = new NotificationMessage(loserName + " is checkmated");
+            ChessGame.TeamColor opponent = status.teamToMove();
+            String opponentName = (opponent == WHITE ? game.whiteUsername() : game.blackUsername());
+            if (status.checkmate()) {
+                NotificationMessage cmNote = new NotificationMessage(opponentName + " is checkmated");
                 broadcastToAll(cmd.getGameID(), cmNote);
-
                 return;
             }
-            if (whiteSM || blackSM) { // Stalemate
-                chess.setGameOver(true);
-                gameService.updateGame(updated);
-
+            if (status.stalemate()) {
                 NotificationMessage smNote =
                         new NotificationMessage("Game is a stalemate");
                 broadcastToAll(cmd.getGameID(), smNote);
                 return;
             }
-            ChessGame.TeamColor opponent = (whoseTurn == WHITE ? BLACK : WHITE); // Look for check
+            if (status.drawReason() != null) {
+                NotificationMessage drawNote =
+                        new NotificationMessage("Game is a draw by " + drawDescription(status.drawReason()));
+                broadcastToAll(cmd.getGameID(), drawNote);
+                return;
+            }
 
-            if (chess.isInCheck(opponent)) {
-                String inCheckUser =
-                        (opponent == WHITE ? game.whiteUsername() : game.blackUsername());
+            if (status.inCheck()) {
                 NotificationMessage checkNote =
-                        new NotificationMessage(inCheckUser + " is in check");
+                        new NotificationMessage(opponentName + " is in check");
                 broadcastToAll(cmd.getGameID(), checkNote);
             }
         } catch (Exception ex) {
@@ -289,8 +291,44 @@ public class WebSocketServer implements WsConnectHandler, WsMessageHandler, WsCl
         }
     }
 
-    private String moveToString(ChessMove move) {
-        return move.getStartPosition().toAlgebraic() + " → " + move.getEndPosition().toAlgebraic();
+    // Players get the plain board; observers also get an evaluation for their eval bar.
+    // Each version is built and serialized once, however many connections get it.
+    private void broadcastLoadGame(GameData game) {
+        String playerJson = null;
+        String observerJson = null;
+        for (WsContext c : connections.getConnections(game.gameID())) {
+            if (isPlayer(connections.getUsername(c), game)) {
+                if (playerJson == null) { playerJson = gson.toJson(loadGameFor(true, game)); }
+                c.send(playerJson);
+            } else {
+                if (observerJson == null) { observerJson = gson.toJson(loadGameFor(false, game)); }
+                c.send(observerJson);
+            }
+        }
+    }
+
+    private LoadGameMessage loadGameFor(String username, GameData game) {
+        return loadGameFor(isPlayer(username, game), game);
+    }
+
+    private LoadGameMessage loadGameFor(boolean isPlayer, GameData game) {
+        if (isPlayer) {
+            return new LoadGameMessage(game);
+        }
+        return new LoadGameMessage(game, Evaluation.evaluate(game.game().getBoard()));
+    }
+
+    private static boolean isPlayer(String username, GameData game) {
+        return username != null
+                && (username.equals(game.whiteUsername()) || username.equals(game.blackUsername()));
+    }
+
+    private String drawDescription(GameStatus.DrawReason reason) {
+        return switch (reason) {
+            case THREEFOLD_REPETITION -> "threefold repetition";
+            case FIFTY_MOVE_RULE -> "the fifty-move rule";
+            case INSUFFICIENT_MATERIAL -> "insufficient material";
+        };
     }
 
     private void sendError(WsContext ctx, String message) {
@@ -0,0 +1,225 @@
+package dataaccess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTests {
+
+    @Test
+    @DisplayName("ConnectionPool - Reuses Connections")
+    public void reusesConnections() throws Exception {
+        var opened = new ArrayList<FakeConnection>();
+        try (var pool = new ConnectionPool(factory(opened), settings(2, 100, 60_000, 60_000))) {
+            for (int i = 0; i < 5; i++) {
+                try (Connection conn = pool.borrow()) {
+                    assertFalse(conn.isClosed());
+                    conn.setAutoCommit(false);
+                }
+            }
+            assertEquals(1, opened.size());
+            assertFalse(opened.get(0).closed);
+            assertTrue(opened.get(0).autoCommit, "Returned connections are reset");
+            assertEquals(5, opened.get(0).rollbacks);
+
+            var metrics = pool.metrics();
+            assertEquals(0, metrics.active());
+            assertEquals(1, metrics.idle());
+            assertEquals(5, metrics.borrowed());
+            assertEquals(1, metrics.opened());
+        }
+        assertTrue(opened.get(0).closed, "Closing the pool closes idle connections");
+    }
+
+    @Test
+    @DisplayName("ConnectionPool - Times Out When Full")
+    public void timesOutWhenFull() throws Exception {
+        var opened = new ArrayList<FakeConnection>();
+        try (var pool = new ConnectionPool(factory(opened), settings(2, 50, 60_000, 60_000))) {
+            Connection first = pool.borrow();
+            Connection second = pool.borrow();
+            assertEquals(2, pool.metrics().active());
+            assertThrows(SQLTransientConnectionException.class, pool::borrow);
+            assertEquals(1, pool.metrics().timeouts());
+
+            first.close();
+            first.close(); // a second close doesn't hand it back twice
+            assertThrows(SQLException.class, first::createStatement);
+            try (Connection third = pool.borrow()) {
+                assertNotSame(second, third);
+                assertEquals(2, opened.size());
+                assertThrows(SQLTransientConnectionException.class, pool::borrow);
+            }
+            second.close();
+            assertEquals(2, pool.metrics().idle());
+        }
+    }
+
+    @Test
+    @DisplayName("ConnectionPool - Replaces Bad Connections")
+    public void replacesBadConnections() throws Exception {
+        var opened = new ArrayList<FakeConnection>();
+        try (var pool = new ConnectionPool(factory(opened), settings(2, 100, 60_000, 60_000))) {
+            pool.borrow().close();
+            opened.get(0).valid = false;
+            pool.borrow().close();
+            assertEquals(2, opened.size());
+            assertTrue(opened.get(0).closed);
+            assertEquals(1, pool.metrics().validationFailures());
+
+            Connection conn = pool.borrow();
+            opened.get(1).failWith = "08S01";
+            assertThrows(SQLException.class, conn::createStatement);
+            conn.close();
+            assertTrue(opened.get(1).closed, "A connection that lost its link isn't pooled again");
+            assertEquals(0, pool.metrics().idle());
+        }
+    }
+
+    @Test
+    @DisplayName("ConnectionPool - Evicts Idle And Old Connections")
+    public void evictsIdleAndOld() throws Exception {
+        var opened = new ArrayList<FakeConnection>();
+        try (var pool = new ConnectionPool(factory(opened), settings(2, 100, 20, 60_000))) {
+            pool.borrow().close();
+            Thread.sleep(40);
+            pool.evict();
+            assertTrue(opened.get(0).closed);
+            assertEquals(0, pool.metrics().idle());
+        }
+
+        opened.clear();
+        try (var pool = new ConnectionPool(factory(opened), settings(2, 100, 60_000, 20))) {
+            Connection conn = pool.borrow();
+            Thread.sleep(40);
+            conn.close();
+            assertTrue(opened.get(0).closed, "Connections past their lifetime are retired when returned");
+            pool.borrow().close();
+            assertEquals(2, opened.size());
+        }
+    }
+
+    @Test
+    @DisplayName("ConnectionPool - Slow Close Doesn't Block Borrowing")
+    public void slowCloseDoesntBlock() throws Exception {
+        var opened = new ArrayList<FakeConnection>();
+        try (var pool = new ConnectionPool(factory(opened), settings(2, 1000, 20, 60_000))) {
+            Connection first = pool.borrow();
+            Connection second = pool.borrow();
+            first.close();
+            second.close();
+            Thread.sleep(40);
+
+            var closing = new CountDownLatch(1);
+            var release = new CountDownLatch(1);
+            opened.get(0).onClose = () -> {
+                closing.countDown();
+                await(release);
+            };
+            Thread evictor = new Thread(pool::evict);
+            evictor.start();
+            assertTrue(closing.await(5, TimeUnit.SECONDS));
+
+            ExecutorService borrower = Executors.newSingleThreadExecutor();
+            try {
+                Future<Boolean> borrowed = borrower.submit(() -> {
+                    try (Connection conn = pool.borrow()) {
+                        return !conn.isClosed();
+                    }
+                });
+                assertTrue(borrowed.get(1, TimeUnit.SECONDS), "Borrow shouldn't wait on the close");
+            } finally {
+                release.countDown();
+                borrower.shutdownNow();
+            }
+            evictor.join();
+        }
+    }
+
+    @Test
+    @DisplayName("ConnectionPool - Closed Pool")
+    public void closedPool() throws Exception {
+        var opened = new ArrayList<FakeConnection>();
+        var pool = new ConnectionPool(factory(opened), settings(2, 100, 60_000, 60_000));
+        Connection conn = pool.borrow();
+        pool.close();
+        assertThrows(SQLException.class, pool::borrow);
+        conn.close();
+        assertTrue(opened.get(0).closed, "Connections out when the pool closes are closed on return");
+        assertEquals(0, pool.metrics().idle());
+    }
+
+    @Test
+    @DisplayName("ConnectionPool - Bad Settings")
+    public void badSettings() {
+        assertThrows(IllegalArgumentException.class, () -> settings(0, 100, 60_000, 60_000));
+        assertThrows(IllegalArgumentException.class, () -> settings(2, -1, 60_000, 60_000));
+        assertThrows(IllegalArgumentException.class, () -> settings(2, 100, 0, 60_000));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ConnectionPool.Settings settings(int maxSize, long acquireMs, long idleMs, long lifetimeMs) {
+        return new ConnectionPool.Settings(maxSize, acquireMs, idleMs, lifetimeMs, 1);
+    }
+
+    private static ConnectionPool.ConnectionFactory factory(List<FakeConnection> opened) {
+        return () -> {
+            var fake = new FakeConnection();
+            opened.add(fake);
+            return fake.proxy();
+        };
+    }
+
+    // Just enough of a Connection for the pool to manage
+    private static class FakeConnection {
+        boolean closed;
+        boolean valid = true;
+        boolean autoCommit = true;
+        int rollbacks;
+        String failWith;
+        Runnable onClose = () -> { };
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close" -> {
+                                onClose.run();
+                                closed = true;
+                            }
+                            case "isClosed" -> { return closed; }
+                            case "isValid" -> { return valid && !closed; }
+                            case "getAutoCommit" -> { return autoCommit; }
+                            case "setAutoCommit" -> autoCommit = (Boolean) args[0];
+                            case "rollback" -> rollbacks++;
+                            case "clearWarnings" -> { }
+                            default -> {
+                                if (failWith != null) { throw new SQLException("Connection lost", failWith); }
+                                return null;
+                            }
+                        }
+                        return null;
+                    });
+        }
+    }
+}
@@ -319,4 +319,38 @@ public class DataAccessUnitTests {
                 ex.getMessage().toLowerCase().contains("full"));
     }
 
+    @Test
+    @DisplayName("appendMove - Positive")
+    public void testAppendMovePositive() throws Exception {
+        MySqlDataAccess dao = new MySqlDataAccess();
+        dao.clear();
+
+        GameData game = dao.createGame(new GameData(0, null, null, "Logged", new chess.ChessGame()));
+        // fool's mate, replayed from the log on every read
+        String[][] moves = {{"f2", "f3"}, {"e7", "e5"}, {"g2", "g4"}, {"d8", "h4"}};
+        for (int ply = 0; ply < moves.length; ply++) {
+            dao.appendMove(game.gameID(), ply, new chess.ChessMove(chess.ChessPosition.fromAlgebraic(moves[ply][0]),
+                    chess.ChessPosition.fromAlgebraic(moves[ply][1]), null));
+        }
+
+        chess.ChessGame retrieved = dao.getGame(game.gameID()).game();
+        assertEquals("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3", chess.Fen.toFen(retrieved));
+        assertTrue(retrieved.isGameOver(), "Checkmate should end the replayed game");
+    }
+
+    @Test
+    @DisplayName("appendMove - Negative")
+    public void testAppendMoveNegative() throws Exception {
+        MySqlDataAccess dao = new MySqlDataAccess();
+        dao.clear();
+
+        GameData game = dao.createGame(new GameData(0, null, null, "Logged", new chess.ChessGame()));
+        var move = new chess.ChessMove(chess.ChessPosition.fromAlgebraic("e2"), chess.ChessPosition.fromAlgebraic("e4"), null);
+        dao.appendMove(game.gameID(), 0, move);
+
+        assertThrows(DataAccessException.class, () -> dao.appendMove(game.gameID(), 0, move),
+                "A ply can only be logged once");
+        assertThrows(DataAccessException.class, () -> dao.appendMove(999, 0, move));
+    }
+
 }
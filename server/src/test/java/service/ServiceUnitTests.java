@@ -1,5 +1,9 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
 import dataaccess.MemoryDataAccess;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Order;
@@ -9,6 +13,10 @@ import model.requestsandresults.JoinGameRequest;
 import model.requestsandresults.LoginRequest;
 import model.requestsandresults.RegisterRequest;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ServiceUnitTests {
@@ -254,4 +262,77 @@ public class ServiceUnitTests {
         assertTrue(thrown.getMessage().contains("already taken"));
     }
 
+    @Test
+    @Order(14)
+    @DisplayName("GetPosition - Positive")
+    public void testGetPositionPositive() throws Exception {
+        var dao = new MemoryDataAccess();
+        var userService = new UserService(dao);
+        var gameService = new GameService(dao, 8);
+
+        var reg = userService.register(new RegisterRequest("replay", "pass", "r@mail.com"));
+        int gameID = gameService.createGame(new CreateGameRequest(reg.authToken(), "long game")).gameID();
+
+        // play random moves the way the websocket server records them
+        List<String> fens = new ArrayList<>();
+        Random random = new Random(23);
+        ChessGame game = gameService.getGame(gameID).game();
+        fens.add(Fen.toFen(game));
+        for (int ply = 0; ply < 60 && !game.isGameOver(); ply++) {
+            List<ChessMove> moves = new ArrayList<>(game.legalMoves());
+            if (moves.isEmpty()) { break; }
+            ChessMove move = moves.get(random.nextInt(moves.size()));
+            game.makeMove(move);
+            gameService.recordMove(gameID, ply, move, game);
+            fens.add(Fen.toFen(game));
+        }
+
+        for (int ply = 0; ply < fens.size(); ply++) {
+            assertEquals(fens.get(ply), Fen.toFen(gameService.getPosition(gameID, ply)), "ply " + ply);
+        }
+        assertEquals(fens.get(fens.size() - 1), Fen.toFen(gameService.getGame(gameID).game()));
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("GetPosition - Negative")
+    public void testGetPositionNegative() throws Exception {
+        var dao = new MemoryDataAccess();
+        var userService = new UserService(dao);
+        var gameService = new GameService(dao, 8);
+
+        var reg = userService.register(new RegisterRequest("replay", "pass", "r@mail.com"));
+        int gameID = gameService.createGame(new CreateGameRequest(reg.authToken(), "short game")).gameID();
+
+        assertThrows(ServiceException.class, () -> gameService.getPosition(gameID, 1), "No moves played yet");
+        assertThrows(ServiceException.class, () -> gameService.getPosition(gameID, -1));
+        assertThrows(ServiceException.class, () -> gameService.getPosition(gameID + 1, 0));
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("GetGame - Repetition Survives A Reload")
+    public void testRepetitionSurvivesReload() throws Exception {
+        var dao = new MemoryDataAccess();
+        var userService = new UserService(dao);
+        var gameService = new GameService(dao, 8);
+
+        var reg = userService.register(new RegisterRequest("repeat", "pass", "r@mail.com"));
+        int gameID = gameService.createGame(new CreateGameRequest(reg.authToken(), "drawn game")).gameID();
+
+        // the position after 1. e4 e5 comes back twice, with a snapshot taken at ply 8 in between
+        String[] moves = {"e2e4", "e7e5", "g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1", "f6g8"};
+        ChessGame game = gameService.getGame(gameID).game();
+        for (int ply = 0; ply < moves.length; ply++) {
+            ChessMove move = new ChessMove(ChessPosition.fromAlgebraic(moves[ply].substring(0, 2)),
+                    ChessPosition.fromAlgebraic(moves[ply].substring(2)), null);
+            game.makeMove(move);
+            gameService.recordMove(gameID, ply, move, game);
+        }
+        assertTrue(game.isThreefoldRepetition());
+
+        assertTrue(gameService.getGame(gameID).game().isThreefoldRepetition(), "Rebuilt from before the snapshot");
+        assertTrue(gameService.getPosition(gameID, 10).isThreefoldRepetition());
+        assertFalse(gameService.getPosition(gameID, 9).isThreefoldRepetition());
+    }
 }
@@ -0,0 +1,249 @@
+package chess;
+
+/**
+ * Precomputed attack sets for every piece on every square.
+ * Knights, kings and pawns are plain 64-entry lookups. Bishops and rooks use
+ * magic bitboards: the blockers on a square's rays are multiplied by a magic
+ * number and the top bits index straight into a table of attack sets.
+ * Everything is built once when the class loads.
+ */
+public final class AttackTables {
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64]; // [color][square] squares a pawn attacks
+
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {-1, 1}, {1, -1}, {-1, -1}};
+
+    private static final long[] MAGIC_SEEDS = {728, 10316, 55013, 32803, 12281, 15100, 16645, 255};
+    private static final Magic[] ROOK_MAGICS = new Magic[64];
+    private static final Magic[] BISHOP_MAGICS = new Magic[64];
+
+    private static final long[][] BETWEEN = new long[64][64]; // squares strictly between two aligned squares
+    private static final long[][] LINE = new long[64][64];    // the whole line through two aligned squares
+
+    private AttackTables() {
+    }
+
+    private static final class Magic {
+        final long mask;
+        final long magic;
+        final int shift;
+        final long[] attacks;
+
+        Magic(long mask, long magic, int shift, long[] attacks) {
+            this.mask = mask;
+            this.magic = magic;
+            this.shift = shift;
+            this.attacks = attacks;
+        }
+
+        long lookup(long occupied) {
+            return attacks[(int) (((occupied & mask) * magic) >>> shift)];
+        }
+    }
+
+    static {
+        int[][] knightSteps = {{-1, -2}, {-2, -1}, {1, -2}, {2, -1}, {-2, 1}, {-1, 2}, {1, 2}, {2, 1}};
+        int[][] kingSteps = {{0, 1}, {1, 1}, {0, -1}, {-1, 1}, {1, 0}, {1, -1}, {-1, 0}, {-1, -1}};
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = steps(square, knightSteps);
+            KING[square] = steps(square, kingSteps);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = steps(square, new int[][] {{1, -1}, {1, 1}});
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = steps(square, new int[][] {{-1, -1}, {-1, 1}});
+        }
+        for (int square = 0; square < 64; square++) {
+            ROOK_MAGICS[square] = findMagic(square, ROOK_DIRECTIONS);
+            BISHOP_MAGICS[square] = findMagic(square, BISHOP_DIRECTIONS);
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                long bBit = 1L << b;
+                if (a == b) { continue; }
+                if ((rookAttacks(a, 0L) & bBit) != 0) {
+                    BETWEEN[a][b] = rookAttacks(a, bBit) & rookAttacks(b, 1L << a);
+                    LINE[a][b] = (rookAttacks(a, 0L) & rookAttacks(b, 0L)) | (1L << a) | bBit;
+                } else if ((bishopAttacks(a, 0L) & bBit) != 0) {
+                    BETWEEN[a][b] = bishopAttacks(a, bBit) & bishopAttacks(b, 1L << a);
+                    LINE[a][b] = (bishopAttacks(a, 0L) & bishopAttacks(b, 0L)) | (1L << a) | bBit;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the squares strictly between two squares on a shared rank, file or
+     * diagonal, or 0 if they don't line up
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @return every square on the rank, file or diagonal through both squares,
+     * or 0 if they don't line up
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color on this square attacks
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_MAGICS[square].lookup(occupied);
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_MAGICS[square].lookup(occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return bishopAttacks(square, occupied) | rookAttacks(square, occupied);
+    }
+
+    /**
+     * Gets every square a piece attacks, including squares held by its own side
+     */
+    public static long attacks(ChessPiece piece, int square, long occupied) {
+        return switch (piece.getPieceType()) {
+            case KING -> kingAttacks(square);
+            case QUEEN -> queenAttacks(square, occupied);
+            case BISHOP -> bishopAttacks(square, occupied);
+            case KNIGHT -> knightAttacks(square);
+            case ROOK -> rookAttacks(square, occupied);
+            case PAWN -> pawnAttacks(piece.getTeamColor(), square);
+        };
+    }
+
+    /**
+     * Determines whether any piece of the attacking color hits a square.
+     * Works backwards from the square: e.g. if a knight on the square would
+     * land on an enemy knight, that knight attacks the square.
+     */
+    public static boolean isAttacked(ChessBoard board, int square, ChessGame.TeamColor attacker) {
+        return attackersOf(board, square, attacker, board.occupied()) != 0;
+    }
+
+    /**
+     * @return bitboard of the attacking color's pieces that hit the square,
+     * treating only the given squares as blockers for sliding pieces
+     */
+    public static long attackersOf(ChessBoard board, int square, ChessGame.TeamColor attacker, long occupied) {
+        ChessGame.TeamColor defender = attacker.opponent();
+        long queens = board.pieces(attacker, ChessPiece.PieceType.QUEEN);
+        long diagonal = board.pieces(attacker, ChessPiece.PieceType.BISHOP) | queens;
+        long straight = board.pieces(attacker, ChessPiece.PieceType.ROOK) | queens;
+        return (pawnAttacks(defender, square) & board.pieces(attacker, ChessPiece.PieceType.PAWN))
+                | (knightAttacks(square) & board.pieces(attacker, ChessPiece.PieceType.KNIGHT))
+                | (kingAttacks(square) & board.pieces(attacker, ChessPiece.PieceType.KING))
+                | (bishopAttacks(square, occupied) & diagonal)
+                | (rookAttacks(square, occupied) & straight);
+    }
+
+    private static long steps(int square, int[][] offsets) {
+        int row = square / 8;
+        int col = square % 8;
+        long result = 0L;
+        for (int[] offset : offsets) {
+            int r = row + offset[0];
+            int c = col + offset[1];
+            if (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                result |= 1L << (r * 8 + c);
+            }
+        }
+        return result;
+    }
+
+    // Slow ray walk, only used while building the tables
+    private static long slide(int square, int[][] directions, long occupied) {
+        long result = 0L;
+        for (int[] direction : directions) {
+            int r = square / 8 + direction[0];
+            int c = square % 8 + direction[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                long bit = 1L << (r * 8 + c);
+                result |= bit;
+                if ((occupied & bit) != 0) { break; }
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return result;
+    }
+
+    // Squares whose occupancy matters: the rays minus their last square
+    private static long relevantMask(int square, int[][] directions) {
+        long result = 0L;
+        for (int[] direction : directions) {
+            int r = square / 8 + direction[0];
+            int c = square % 8 + direction[1];
+            while (r + direction[0] >= 0 && r + direction[0] < 8 && c + direction[1] >= 0 && c + direction[1] < 8) {
+                result |= 1L << (r * 8 + c);
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return result;
+    }
+
+    private static Magic findMagic(int square, int[][] directions) {
+        long mask = relevantMask(square, directions);
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        long[] occupancies = new long[size];
+        long[] reference = new long[size];
+
+        // enumerate every subset of the mask (carry-rippler trick)
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            reference[i] = slide(square, directions, subset);
+            subset = (subset - mask) & mask;
+        }
+
+        // fixed per-rank seeds that are known to find magics quickly
+        long[] seed = {MAGIC_SEEDS[square / 8]};
+        long[] attacks = new long[size];
+        int[] epoch = new int[size];
+        for (int attempt = 1; ; attempt++) {
+            long magic = random(seed) & random(seed) & random(seed); // sparse candidates work best
+            if (Long.bitCount((mask * magic) >>> 56) < 6) { continue; }
+            boolean collision = false;
+            for (int i = 0; i < size && !collision; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    attacks[index] = reference[i];
+                } else if (attacks[index] != reference[i]) {
+                    collision = true;
+                }
+            }
+            if (!collision) {
+                return new Magic(mask, magic, 64 - bits, attacks);
+            }
+        }
+    }
+
+    private static long random(long[] seed) {
+        long x = seed[0];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        seed[0] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+}
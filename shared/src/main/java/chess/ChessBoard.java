@@ -12,18 +12,76 @@ import java.util.Objects;
 public class ChessBoard {
 
     ChessPiece[][] squares = new ChessPiece[8][8];
+
+    // Bitboard view of squares: bit 0 is a1, bit 7 is h1, bit 63 is h8.
+    // These are transient and rebuilt lazily, so a board Gson fills in (which only
+    // knows about squares) or one the tests build with addPiece stays consistent.
+    private transient long[] pieceSets;   // one set per color and piece type, see pieceIndex
+    private transient long[] colorSets;   // every piece of a color
+    private transient long occupied;
+    private transient long key;           // Zobrist key of the pieces alone, see Zobrist
+    private transient int middlegame;     // running evaluation totals, see PieceSquareTables
+    private transient int endgame;
+    private transient int phase;
+
+    // Castling rights and the en passant square, packed into one int so they copy,
+    // hash and go into undo records as a single value: bits 0-3 castling rights
+    // (see WHITE_KINGSIDE etc.), bits 4-9 the en passant square and bit 10 set when
+    // there is one. Saved with the board. A board that never had them set assumes
+    // every castle is still allowed; the king and rook still have to be in place.
+    private int state = ALL_CASTLING;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    private static final int EN_PASSANT_SHIFT = 4;
+    private static final int HAS_EN_PASSANT = 1 << 10;
+    private static final int STATE_BITS = (1 << 11) - 1;
+
+    // Rights kept when a piece leaves or lands on each square: moving the king or a
+    // rook, or capturing a rook at home, loses the castles that need it
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[63] &= ~BLACK_KINGSIDE;
+    }
+
+    private static final int NO_PIECE = 12;
+
+    // undo record flags, above the previous state
+    private static final long CASTLE = 1L << 32;
+    private static final long EN_PASSANT = 1L << 33;
+
+    /** The phase of a board with every piece still on it, see gamePhase */
+    public static final int MAX_PHASE = PieceSquareTables.MAX_PHASE;
+
     public ChessBoard(){
 
     }
     public ChessBoard(ChessBoard other) {
         this.squares = new ChessPiece[8][8];
+        this.state = other.state;
         for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece piece = other.squares[row][col];
-                if (piece != null) {
-                    this.squares[row][col] = new ChessPiece(piece); // calls ChessPiece copy constructor
-                }
-            }
+            // pieces are immutable, so the copy can share them
+            System.arraycopy(other.squares[row], 0, this.squares[row], 0, 8);
+        }
+        if (other.pieceSets != null) {
+            this.pieceSets = other.pieceSets.clone();
+            this.colorSets = other.colorSets.clone();
+            this.occupied = other.occupied;
+            this.key = other.key;
+            this.middlegame = other.middlegame;
+            this.endgame = other.endgame;
+            this.phase = other.phase;
         }
     }
 
@@ -34,7 +92,15 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int row = position.getRow() - 1;
+        int col = position.getColumn() - 1;
+        ChessPiece old = squares[row][col];
+        squares[row][col] = piece;
+        if (pieceSets != null) {
+            int square = row * 8 + col;
+            if (old != null) { toggle(old, square); }
+            if (piece != null) { toggle(piece, square); }
+        }
     }
 
     /**
@@ -50,16 +116,123 @@ public class ChessBoard {
 
     public void movePiece(ChessMove move) {
         ChessPosition start = move.getStartPosition();
-        ChessPiece piece = getPiece(start);
-        if (piece == null) {
+        if (getPiece(start) == null) {
             throw new IllegalArgumentException("No piece at start position: " + start);
         }
-        ChessPosition end = move.getEndPosition();
-        squares[start.getRow() - 1][start.getColumn() - 1] = null;
-        squares[end.getRow() - 1][end.getColumn() - 1] = piece;
-        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && move.getPromotionPiece() != null) { //actually change pawns :)
-            squares[end.getRow() - 1][end.getColumn() - 1] = new ChessPiece(piece.getTeamColor(), move.getPromotionPiece());
+        makeMove(move); // also moves the rook when castling and takes the pawn en passant
+    }
+
+    /**
+     * Plays a move in place and returns what's needed to take it back.
+     * Unlike movePiece this never allocates, so it can be used to try out
+     * candidate moves without copying the board.
+     *
+     * @param move the move to play; the start square must hold a piece
+     * @return an undo record to hand to unmakeMove
+     */
+    public long makeMove(ChessMove move) {
+        return makeMove(square(move.getStartPosition()), square(move.getEndPosition()), move.getPromotionPiece());
+    }
+
+    /**
+     * Plays a packed move (see Move), see makeMove(ChessMove)
+     */
+    public long makeMove(int move) {
+        return makeMove(Move.from(move), Move.to(move), Move.promotion(move));
+    }
+
+    /**
+     * Plays a move given as bitboard squares, see makeMove(ChessMove).
+     * A king moving two squares castles, and a pawn moving diagonally onto an
+     * empty square captures en passant.
+     */
+    public long makeMove(int from, int to, ChessPiece.PieceType promotion) {
+        index();
+        ChessPiece piece = getPiece(from);
+        if (piece == null) {
+            throw new IllegalArgumentException("No piece at start square: " + from);
+        }
+        ChessPiece.PieceType type = piece.getPieceType();
+        long flags = 0L;
+        int capturedSquare = to;
+        if (type == ChessPiece.PieceType.PAWN && ((from ^ to) & 7) != 0 && getPiece(to) == null) {
+            capturedSquare = (from & 56) | (to & 7); // the pawn beside us that just double stepped
+            flags |= EN_PASSANT;
+        }
+        ChessPiece captured = getPiece(capturedSquare);
+        int moved = pieceIndex(piece.getTeamColor(), type);
+        int taken = captured == null ? NO_PIECE : pieceIndex(captured.getTeamColor(), captured.getPieceType());
+        boolean promotes = promotion != null && type == ChessPiece.PieceType.PAWN;
+        int previous = state;
+
+        if (captured != null) { remove(capturedSquare); }
+        remove(from);
+        put(to, promotes ? ChessPiece.of(piece.getTeamColor(), promotion) : piece);
+        if (type == ChessPiece.PieceType.KING && Math.abs((to & 7) - (from & 7)) == 2) {
+            moveCastlingRook(from, to, false);
+            flags |= CASTLE;
         }
+
+        int next = previous & ALL_CASTLING & CASTLING_MASK[from] & CASTLING_MASK[to];
+        if (type == ChessPiece.PieceType.PAWN && Math.abs(to - from) == 16) {
+            // only remember the square if an enemy pawn is there to use it, so
+            // positions that can't differ don't get different keys
+            int skipped = (from + to) >>> 1;
+            int enemyPawns = pieceIndex(piece.getTeamColor().opponent(), ChessPiece.PieceType.PAWN);
+            if ((AttackTables.pawnAttacks(piece.getTeamColor(), skipped) & pieceSets[enemyPawns]) != 0) {
+                next |= HAS_EN_PASSANT | skipped << EN_PASSANT_SHIFT;
+            }
+        }
+        state = next;
+
+        // undo record layout: from (6 bits) | to (6) | moved piece (4) | captured piece (4) | promoted (1)
+        // | previous state (11) | castle (1) | en passant (1)
+        return from | (long) to << 6 | (long) moved << 12 | (long) taken << 16 | (promotes ? 1L << 20 : 0L)
+                | (long) previous << 21 | flags;
+    }
+
+    /**
+     * Takes back a move played with makeMove. Moves must be undone in the
+     * reverse order they were made.
+     *
+     * @param undo the record makeMove returned
+     */
+    public void unmakeMove(long undo) {
+        int from = (int) (undo & 63);
+        int to = (int) (undo >>> 6 & 63);
+        int moved = (int) (undo >>> 12 & 15);
+        int taken = (int) (undo >>> 16 & 15);
+
+        if ((undo & CASTLE) != 0) {
+            moveCastlingRook(from, to, true);
+        }
+        remove(to);
+        put(from, ChessPiece.of(moved));
+        if (taken != NO_PIECE) {
+            put((undo & EN_PASSANT) != 0 ? (from & 56) | (to & 7) : to, ChessPiece.of(taken));
+        }
+        state = (int) (undo >>> 21) & STATE_BITS;
+    }
+
+    // The king has gone from -> to; the rook jumps from the corner to the square the king passed
+    private void moveCastlingRook(int from, int to, boolean undo) {
+        int corner = to > from ? to + 1 : to - 2;
+        int passed = (from + to) >>> 1;
+        int rookFrom = undo ? passed : corner;
+        int rookTo = undo ? corner : passed;
+        ChessPiece rook = getPiece(rookFrom);
+        remove(rookFrom);
+        put(rookTo, rook);
+    }
+
+    private void put(int square, ChessPiece piece) {
+        squares[square >>> 3][square & 7] = piece;
+        toggle(piece, square);
+    }
+
+    private void remove(int square) {
+        toggle(getPiece(square), square);
+        squares[square >>> 3][square & 7] = null;
     }
 
     /**
@@ -68,6 +241,8 @@ public class ChessBoard {
      */
     public void resetBoard() {
         squares = new ChessPiece[8][8];
+        pieceSets = null;
+        state = ALL_CASTLING;
 
         // Order of back row
         ChessPiece.PieceType[] backRank = {
@@ -83,32 +258,232 @@ public class ChessBoard {
 
         // Place white (row 1) and black (row 8)
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(1, col),
-                    new ChessPiece(ChessGame.TeamColor.WHITE, backRank[col - 1]));
-            addPiece(new ChessPosition(8, col),
-                    new ChessPiece(ChessGame.TeamColor.BLACK, backRank[col - 1]));
+            addPiece(ChessPosition.of(1, col),
+                    ChessPiece.of(ChessGame.TeamColor.WHITE, backRank[col - 1]));
+            addPiece(ChessPosition.of(8, col),
+                    ChessPiece.of(ChessGame.TeamColor.BLACK, backRank[col - 1]));
         }
 
         // Place pawns (row 2 = white, row 7 = black)
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(2, col),
-                    new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7, col),
-                    new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, col),
+                    ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, col),
+                    ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        }
+    }
+
+    /**
+     * @return the square index (0 = a1, 63 = h8) used by the bitboards for a position
+     */
+    public static int square(ChessPosition position) {
+        return (position.getRow() - 1) * 8 + position.getColumn() - 1;
+    }
+
+    /**
+     * @return index into the twelve piece sets for a color and piece type
+     */
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of this color and type
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        index();
+        return pieceSets[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of this color
+     */
+    public long pieces(ChessGame.TeamColor color) {
+        index();
+        return colorSets[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long occupied() {
+        index();
+        return occupied;
+    }
+
+    /**
+     * Gets the Zobrist key for the piece placement, castling rights and en passant
+     * square, kept up to date as pieces are added and moved
+     *
+     * @return the 64-bit position key
+     */
+    public long zobristKey() {
+        index();
+        long result = key ^ Zobrist.castling(state & ALL_CASTLING);
+        return (state & HAS_EN_PASSANT) != 0 ? result ^ Zobrist.enPassant(enPassantSquare() & 7) : result;
+    }
+
+    /**
+     * @return the castles still allowed, a mask of WHITE_KINGSIDE, WHITE_QUEENSIDE,
+     * BLACK_KINGSIDE and BLACK_QUEENSIDE
+     */
+    public int castlingRights() {
+        return state & ALL_CASTLING;
+    }
+
+    public void setCastlingRights(int rights) {
+        state = (state & ~ALL_CASTLING) | (rights & ALL_CASTLING);
+    }
+
+    // The raw state int, for ChessJson to save and restore as reflection would
+    int packedState() {
+        return state;
+    }
+
+    void setPackedState(int state) {
+        this.state = state & STATE_BITS;
+    }
+
+    /**
+     * Gets the square a pawn skipped over with a double step on the last move,
+     * when an enemy pawn could capture it there
+     *
+     * @return the square (0 = a1, 63 = h8), or -1 if there's no en passant capture
+     */
+    public int enPassantSquare() {
+        return (state & HAS_EN_PASSANT) != 0 ? state >>> EN_PASSANT_SHIFT & 63 : -1;
+    }
+
+    /**
+     * @param square the square behind a pawn that just double stepped, or -1 for none
+     */
+    public void setEnPassantSquare(int square) {
+        state &= ALL_CASTLING;
+        if (square >= 0) {
+            state |= HAS_EN_PASSANT | square << EN_PASSANT_SHIFT;
         }
     }
 
+    /**
+     * Gets the material and piece-square score for the middlegame, kept up to
+     * date as pieces are added and moved
+     *
+     * @return centipawns, positive when white is better
+     */
+    public int middlegameScore() {
+        index();
+        return middlegame;
+    }
+
+    /**
+     * Same as middlegameScore, with the endgame tables
+     */
+    public int endgameScore() {
+        index();
+        return endgame;
+    }
+
+    /**
+     * Gets how much non-pawn material is left, for blending the middlegame
+     * and endgame scores
+     *
+     * @return from MAX_PHASE with every piece on the board down to 0 with none
+     */
+    public int gamePhase() {
+        index();
+        return Math.min(phase, MAX_PHASE);
+    }
+
+    /**
+     * Gets the piece on a bitboard square without building a ChessPosition
+     */
+    public ChessPiece getPiece(int square) {
+        return squares[square >>> 3][square & 7];
+    }
+
+    private void toggle(ChessPiece piece, int square) {
+        long bit = 1L << square;
+        int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieceSets[index] ^= bit;
+        colorSets[piece.getTeamColor().ordinal()] ^= bit;
+        occupied ^= bit;
+        key ^= Zobrist.piece(index, square);
+        int sign = (pieceSets[index] & bit) != 0 ? 1 : -1; // added or removed
+        middlegame += sign * PieceSquareTables.middlegame(index, square);
+        endgame += sign * PieceSquareTables.endgame(index, square);
+        phase += sign * PieceSquareTables.phase(index);
+    }
+
+    // Builds the bitboards from squares the first time they're needed. Everything is
+    // worked out in locals and pieceSets is set last, since a non-null pieceSets is
+    // what marks the index as built.
+    private void index() {
+        if (pieceSets != null) { return; }
+        long[] newPieceSets = new long[12];
+        long[] newColorSets = new long[2];
+        long newOccupied = 0L;
+        long newKey = 0L;
+        int newMiddlegame = 0;
+        int newEndgame = 0;
+        int newPhase = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = getPiece(square);
+            if (piece != null) {
+                // swap in the shared instance for pieces Gson or callers allocated
+                piece = ChessPiece.of(piece.getTeamColor(), piece.getPieceType());
+                squares[square >>> 3][square & 7] = piece;
+                long bit = 1L << square;
+                int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+                newPieceSets[index] |= bit;
+                newColorSets[piece.getTeamColor().ordinal()] |= bit;
+                newOccupied |= bit;
+                newKey ^= Zobrist.piece(index, square);
+                newMiddlegame += PieceSquareTables.middlegame(index, square);
+                newEndgame += PieceSquareTables.endgame(index, square);
+                newPhase += PieceSquareTables.phase(index);
+            }
+        }
+        colorSets = newColorSets;
+        occupied = newOccupied;
+        key = newKey;
+        middlegame = newMiddlegame;
+        endgame = newEndgame;
+        phase = newPhase;
+        pieceSets = newPieceSets;
+    }
+
+    // The piece part of the Zobrist key worked out from squares, for when the index
+    // isn't built; building it would rewrite squares
+    private long pieceKey() {
+        if (pieceSets != null) { return key; }
+        long result = 0L;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = getPiece(square);
+            if (piece != null) {
+                result ^= Zobrist.piece(pieceIndex(piece.getTeamColor(), piece.getPieceType()), square);
+            }
+        }
+        return result;
+    }
+
+
+    // Boards are equal when their pieces are; castling rights and en passant
+    // aren't compared, since a board built with addPiece can't know them
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
+        // neither board is changed: the keys are only a shortcut when both are indexed
         ChessBoard that = (ChessBoard) o;
+        if (pieceSets != null && that.pieceSets != null && key != that.key) {
+            return false;
+        }
         return Objects.deepEquals(squares, that.squares);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(pieceKey());
     }
 }
@@ -1,8 +1,11 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -16,12 +19,32 @@ public class ChessGame {
     private TeamColor team;
     private boolean gameOver = false;
 
+    // Draw bookkeeping. The history holds the key of every position since the last
+    // capture or pawn move (oldest first); earlier positions can never come back.
+    // Neither GameCodec nor the JSON sent to clients stores it; the server replays
+    // the moves since the last capture or pawn move to rebuild it. A null history (a
+    // decoded game, or a position set up by hand) means just the current position.
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private transient long[] positionHistory; // grown by doubling; only historyLength entries are used
+    private transient int historyLength;
+    private transient Map<Long, Integer> keyCounts; // how often each key is in the history
+
+    /** Halfmoves without a capture or pawn move after which the game is drawn */
+    public static final int FIFTY_MOVE_LIMIT = 100;
+
     public ChessGame() {
         this.board = new ChessBoard();
         this.team = ChessGame.TeamColor.WHITE;
         board.resetBoard();
     }
 
+    // For setting up a position without building the starting board first, e.g. from FEN
+    ChessGame(ChessBoard board, TeamColor team) {
+        this.board = board;
+        this.team = team;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -36,6 +59,7 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         this.team = team;
+        clearHistory();
     }
 
     /**
@@ -43,7 +67,14 @@ public class ChessGame {
      */
     public enum TeamColor {
         WHITE,
-        BLACK
+        BLACK;
+
+        /**
+         * @return the other team
+         */
+        public TeamColor opponent() {
+            return this == WHITE ? BLACK : WHITE;
+        }
     }
 
     public boolean isGameOver() {
@@ -65,23 +96,22 @@ public class ChessGame {
         ChessPiece piece = board.getPiece(startPosition);
         if (piece == null) { return Collections.emptyList(); }
 
-        Collection<ChessMove> allMoves = piece.pieceMoves(board, startPosition);
         Collection<ChessMove> legalMoves = new ArrayList<>();
-
-        for (ChessMove move : allMoves) {
-            ChessBoard copy = new ChessBoard(board);
-            copy.movePiece(move);
-
-            ChessGame tempGame = new ChessGame();
-            tempGame.setBoard(copy);
-
-            if (!tempGame.isInCheck(piece.getTeamColor())) {
-                legalMoves.add(move);
-            }
-        }
+        MoveGenerator.legalMoves(board, piece.getTeamColor(), 1L << ChessBoard.square(startPosition), legalMoves);
         return legalMoves;
     }
 
+    /**
+     * Gets every legal move for the team whose turn it is
+     *
+     * @return all legal moves, empty on checkmate or stalemate
+     */
+    public Collection<ChessMove> legalMoves() {
+        Collection<ChessMove> moves = new ArrayList<>();
+        MoveGenerator.legalMoves(board, team, -1L, moves);
+        return moves;
+    }
+
     /**
      * Makes a move in a chess game
      *
@@ -103,9 +133,16 @@ public class ChessGame {
             throw new InvalidMoveException("Not your turn.");
         }
 
-        if (validMoves(start).contains(move)) {
+        MoveList legal = new MoveList();
+        MoveGenerator.legalMoves(board, team, 1L << ChessBoard.square(start), legal);
+        if (legal.contains(Move.fromChessMove(move))) {
+            boolean irreversible = piece.getPieceType() == ChessPiece.PieceType.PAWN
+                    || board.getPiece(move.getEndPosition()) != null;
+            positionHistory(); // the position before the move has to be in the history
             board.movePiece(move);
+            if (team == TeamColor.BLACK) { fullmoveNumber++; }
             switchTeam();
+            recordPosition(irreversible);
         } else {
             throw new InvalidMoveException("That move isn't valid.");
         }
@@ -118,32 +155,9 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPos = findKing(teamColor);
-
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition pos = new ChessPosition(i,j);
-                ChessPiece piece = board.getPiece(pos);
-
-                if (isEnemy(piece, teamColor) && attackingKing(piece, pos, kingPos)) {
-                     return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private boolean isEnemy(ChessPiece piece, TeamColor teamColor) {
-        return piece != null && piece.getTeamColor() != teamColor;
-    }
-
-    private boolean attackingKing(ChessPiece piece, ChessPosition pos, ChessPosition kingPos) {
-        for (ChessMove move : piece.pieceMoves(board, pos)) {
-            if (move.getEndPosition().equals(kingPos)) {
-                return true;
-            }
-        }
-        return false;
+        long king = board.pieces(teamColor, ChessPiece.PieceType.KING);
+        if (king == 0) { return false; }
+        return AttackTables.isAttacked(board, Long.numberOfTrailingZeros(king), teamColor.opponent());
     }
 
     /**
@@ -153,23 +167,8 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        ChessPosition kingPos = findKing(teamColor);
-        boolean killToEscape = false;
-        Collection<ChessMove> canHeMove = validMoves(kingPos);
-        Collection<ChessMove> anyMoves = teamMoves(teamColor);
-        for (ChessMove move : anyMoves) {
-            ChessBoard copy = new ChessBoard(board);
-            copy.movePiece(move);
-
-            ChessGame tempGame = new ChessGame();
-            tempGame.setBoard(copy);
-
-            if (!tempGame.isInCheck(teamColor)) {
-                killToEscape = true;
-            }
-        }
-
-        return isInCheck(teamColor) && canHeMove.isEmpty() && !killToEscape;
+        // only legal moves are counted, so any move left gets out of check
+        return isInCheck(teamColor) && MoveGenerator.countLegalMoves(board, teamColor) == 0;
     }
 
     /**
@@ -180,8 +179,171 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        Collection<ChessMove> anyMoves = teamMoves(teamColor);
-        return !isInCheck(teamColor) && anyMoves.isEmpty();
+        return !isInCheck(teamColor) && MoveGenerator.countLegalMoves(board, teamColor) == 0;
+    }
+
+    /**
+     * Gets the Zobrist key of the position: piece placement plus the team to move.
+     * Equal positions always share a key, and the key is updated incrementally as
+     * moves are made, so this is O(1).
+     *
+     * @return the 64-bit position key
+     */
+    public long getZobristKey() {
+        return board.zobristKey() ^ Zobrist.side(team);
+    }
+
+    /**
+     * Works out check, checkmate, stalemate and draws for the team whose turn it is
+     * from a single pass of the move generator, instead of calling
+     * isInCheckmate, isInStalemate and isInCheck separately
+     *
+     * @return the status for the team to move
+     */
+    public GameStatus evaluateStatus() {
+        boolean inCheck = isInCheck(team);
+        int moveCount = MoveGenerator.countLegalMoves(board, team);
+        boolean checkmate = inCheck && moveCount == 0;
+        GameStatus.DrawReason draw = checkmate ? null : drawReason();
+        return new GameStatus(team, inCheck, checkmate, !inCheck && moveCount == 0, moveCount, draw);
+    }
+
+    /**
+     * Gets how many halfmoves have been played, worked out from the fullmove
+     * number and whose turn it is
+     *
+     * @return 0 before white's first move, 1 before black's reply, and so on
+     */
+    public int getPly() {
+        return 2 * (fullmoveNumber - 1) + (team == TeamColor.BLACK ? 1 : 0);
+    }
+
+    /**
+     * Gets the number of halfmoves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Sets the halfmove clock, e.g. when loading a position from FEN
+     */
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * Gets the number of the current full move; it starts at 1 and goes up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Determines if the current position has now appeared three times with the
+     * same team to move
+     */
+    public boolean isThreefoldRepetition() {
+        return keyCounts().getOrDefault(getZobristKey(), 0) >= 3;
+    }
+
+    /**
+     * Determines if fifty moves by each side have gone by without a capture or pawn move
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= FIFTY_MOVE_LIMIT;
+    }
+
+    /**
+     * Determines if neither side has enough material left to checkmate: bare kings,
+     * a king and one minor piece against a king, or bishops that all stand on
+     * the same color of square
+     */
+    public boolean isInsufficientMaterial() {
+        long heavy = 0L;
+        for (TeamColor color : TeamColor.values()) {
+            heavy |= board.pieces(color, ChessPiece.PieceType.PAWN)
+                    | board.pieces(color, ChessPiece.PieceType.ROOK)
+                    | board.pieces(color, ChessPiece.PieceType.QUEEN);
+        }
+        if (heavy != 0) { return false; }
+
+        long knights = board.pieces(TeamColor.WHITE, ChessPiece.PieceType.KNIGHT)
+                | board.pieces(TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        long bishops = board.pieces(TeamColor.WHITE, ChessPiece.PieceType.BISHOP)
+                | board.pieces(TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+        int minors = Long.bitCount(knights | bishops);
+        if (minors <= 1) { return true; }
+
+        long darkSquares = 0xAA55AA55AA55AA55L;
+        return knights == 0 && ((bishops & darkSquares) == 0 || (bishops & ~darkSquares) == 0);
+    }
+
+    /**
+     * @return why the game is drawn, or null if no draw rule applies
+     */
+    public GameStatus.DrawReason drawReason() {
+        if (isInsufficientMaterial()) { return GameStatus.DrawReason.INSUFFICIENT_MATERIAL; }
+        if (isFiftyMoveRule()) { return GameStatus.DrawReason.FIFTY_MOVE_RULE; }
+        if (isThreefoldRepetition()) { return GameStatus.DrawReason.THREEFOLD_REPETITION; }
+        return null;
+    }
+
+    // Adds the position just reached to the draw bookkeeping. After a capture or pawn
+    // move nothing earlier can repeat, so the history starts over in the same array.
+    private void recordPosition(boolean irreversible) {
+        long key = getZobristKey();
+        if (irreversible) {
+            halfmoveClock = 0;
+            if (positionHistory == null) { positionHistory = new long[16]; }
+            positionHistory[0] = key;
+            historyLength = 1;
+            keyCounts = null;
+            return;
+        }
+        halfmoveClock++;
+        Map<Long, Integer> counts = keyCounts(); // built before the history grows
+        long[] history = positionHistory();
+        if (historyLength == history.length) {
+            positionHistory = history = Arrays.copyOf(history, Math.max(16, history.length * 2));
+        }
+        history[historyLength++] = key;
+        counts.merge(key, 1, Integer::sum);
+    }
+
+    private long[] positionHistory() {
+        if (positionHistory == null) {
+            positionHistory = new long[16];
+            positionHistory[0] = getZobristKey();
+            historyLength = 1;
+        }
+        return positionHistory;
+    }
+
+    private Map<Long, Integer> keyCounts() {
+        if (keyCounts == null) {
+            keyCounts = new HashMap<>();
+            long[] history = positionHistory();
+            for (int i = 0; i < historyLength; i++) {
+                keyCounts.merge(history[i], 1, Integer::sum);
+            }
+        }
+        return keyCounts;
+    }
+
+    // For tests: the history as it is, null when it's just the current position
+    long[] savedHistory() {
+        return positionHistory == null ? null : Arrays.copyOf(positionHistory, historyLength);
+    }
+
+    private void clearHistory() {
+        positionHistory = null;
+        historyLength = 0;
+        keyCounts = null;
     }
 
     /**
@@ -191,6 +353,7 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        clearHistory();
     }
 
     /**
@@ -203,41 +366,9 @@ public class ChessGame {
     }
 
     private void switchTeam() {
-        if (team == TeamColor.WHITE) { team = TeamColor.BLACK; }
-        else {
-            team = TeamColor.WHITE;
-        }
+        team = team.opponent();
     }
 
-    private ChessPosition findKing(TeamColor teamColor) {
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition pos = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece == null) { continue; }
-
-                if (piece.getPieceType() == ChessPiece.PieceType.KING && piece.getTeamColor() == teamColor) {
-                    return new ChessPosition(i, j);
-                }
-            }
-        }
-        return null;
-    }
-
-    private Collection<ChessMove> teamMoves(TeamColor teamColor) {
-        Collection<ChessMove> anyMoves = new ArrayList<>();
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition pos = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece == null) { continue; }
-                if (piece.getTeamColor().equals(teamColor)) {
-                    anyMoves.addAll(validMoves(pos));
-                }
-            }
-        }
-        return anyMoves;
-    }
 
     @Override
     public String toString() {
@@ -258,6 +389,7 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, team);
+        // not getZobristKey(): equals ignores castling rights and en passant, so the hash has to too
+        return 31 * board.hashCode() + team.ordinal();
     }
 }
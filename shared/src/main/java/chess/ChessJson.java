@@ -0,0 +1,252 @@
+package chess;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming Gson adapters for the chess classes. They write exactly what Gson's
+ * reflection would (same field names, same order, nulls left out), so either side
+ * of a connection can still use a plain Gson, but without walking fields
+ * reflectively or allocating a new object for every square and piece.
+ * <p>
+ * Reading is as forgiving as reflection: fields may come in any order, unknown
+ * ones are skipped and missing ones keep the values a new object would have.
+ */
+public final class ChessJson {
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    public static final TypeAdapter<ChessPosition> POSITION = new PositionAdapter();
+    public static final TypeAdapter<ChessMove> MOVE = new MoveAdapter();
+    public static final TypeAdapter<ChessBoard> BOARD = new BoardAdapter();
+    public static final TypeAdapter<ChessGame> GAME = new GameAdapter();
+
+    private ChessJson() {
+    }
+
+    /**
+     * Registers the adapters for ChessPosition, ChessMove, ChessBoard and ChessGame
+     *
+     * @return the builder, for chaining
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(ChessPosition.class, POSITION.nullSafe())
+                .registerTypeAdapter(ChessMove.class, MOVE.nullSafe())
+                .registerTypeAdapter(ChessBoard.class, BOARD.nullSafe())
+                .registerTypeAdapter(ChessGame.class, GAME.nullSafe());
+    }
+
+    private static final class PositionAdapter extends TypeAdapter<ChessPosition> {
+        @Override
+        public void write(JsonWriter out, ChessPosition position) throws IOException {
+            out.beginObject();
+            out.name("row").value(position.getRow());
+            out.name("col").value(position.getColumn());
+            out.endObject();
+        }
+
+        @Override
+        public ChessPosition read(JsonReader in) throws IOException {
+            int row = 0;
+            int col = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "row" -> row = in.nextInt();
+                    case "col" -> col = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return ChessPosition.of(row, col);
+        }
+    }
+
+    private static final class MoveAdapter extends TypeAdapter<ChessMove> {
+        @Override
+        public void write(JsonWriter out, ChessMove move) throws IOException {
+            out.beginObject();
+            if (move.getStartPosition() != null) {
+                POSITION.write(out.name("startPosition"), move.getStartPosition());
+            }
+            if (move.getEndPosition() != null) {
+                POSITION.write(out.name("endPosition"), move.getEndPosition());
+            }
+            if (move.getPromotionPiece() != null) {
+                out.name("promotionPiece").value(move.getPromotionPiece().name());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ChessMove read(JsonReader in) throws IOException {
+            ChessPosition start = null;
+            ChessPosition end = null;
+            ChessPiece.PieceType promotion = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "startPosition" -> start = POSITION.read(in);
+                    case "endPosition" -> end = POSITION.read(in);
+                    case "promotionPiece" -> promotion = enumValue(TYPES, in.nextString());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ChessMove(start, end, promotion);
+        }
+    }
+
+    // squares is a row-major 8x8 array, a1 first, with null for an empty square
+    private static final class BoardAdapter extends TypeAdapter<ChessBoard> {
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            out.beginObject();
+            out.name("squares").beginArray();
+            for (ChessPiece[] row : board.squares) {
+                out.beginArray();
+                for (ChessPiece piece : row) {
+                    if (piece == null) {
+                        out.nullValue();
+                    } else {
+                        writePiece(out, piece);
+                    }
+                }
+                out.endArray();
+            }
+            out.endArray();
+            out.name("state").value(board.packedState());
+            out.endObject();
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            ChessBoard board = new ChessBoard();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "squares" -> readSquares(in, board);
+                    case "state" -> board.setPackedState(in.nextInt());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return board;
+        }
+
+        private static void readSquares(JsonReader in, ChessBoard board) throws IOException {
+            // only squares is known yet, so the bitboards are built on first use
+            in.beginArray();
+            for (int row = 0; in.hasNext(); row++) {
+                in.beginArray();
+                for (int col = 0; in.hasNext(); col++) {
+                    if (row > 7 || col > 7) { throw new JsonParseException("Board is bigger than 8x8 at " + in.getPath()); }
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        board.squares[row][col] = readPiece(in);
+                    }
+                }
+                in.endArray();
+            }
+            in.endArray();
+        }
+
+        // name() hands back the enum constant's own string, so no piece builds a new one
+        private static void writePiece(JsonWriter out, ChessPiece piece) throws IOException {
+            out.beginObject();
+            if (piece.getTeamColor() != null) { out.name("pieceColor").value(piece.getTeamColor().name()); }
+            if (piece.getPieceType() != null) { out.name("type").value(piece.getPieceType().name()); }
+            out.endObject();
+        }
+
+        private static ChessPiece readPiece(JsonReader in) throws IOException {
+            ChessGame.TeamColor color = null;
+            ChessPiece.PieceType type = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "pieceColor" -> color = enumValue(COLORS, in.nextString());
+                    case "type" -> type = enumValue(TYPES, in.nextString());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return color != null && type != null ? ChessPiece.of(color, type) : new ChessPiece(color, type);
+        }
+    }
+
+    private static final class GameAdapter extends TypeAdapter<ChessGame> {
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            out.beginObject();
+            if (game.getBoard() != null) { BOARD.write(out.name("board"), game.getBoard()); }
+            if (game.getTeamTurn() != null) { out.name("team").value(game.getTeamTurn().name()); }
+            out.name("gameOver").value(game.isGameOver());
+            out.name("halfmoveClock").value(game.getHalfmoveClock());
+            out.name("fullmoveNumber").value(game.getFullmoveNumber());
+            out.endObject();
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            ChessBoard board = null;
+            ChessGame.TeamColor team = ChessGame.TeamColor.WHITE;
+            boolean gameOver = false;
+            int halfmoveClock = 0;
+            int fullmoveNumber = 1;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "board" -> board = BOARD.read(in);
+                    case "team" -> team = enumValue(COLORS, in.nextString());
+                    case "gameOver" -> gameOver = in.nextBoolean();
+                    case "halfmoveClock" -> halfmoveClock = in.nextInt();
+                    case "fullmoveNumber" -> fullmoveNumber = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            if (board == null) { // as a new ChessGame would have it
+                board = new ChessBoard();
+                board.resetBoard();
+            }
+            ChessGame game = new ChessGame(board, team);
+            game.setGameOver(gameOver);
+            game.setHalfmoveClock(halfmoveClock);
+            game.setFullmoveNumber(fullmoveNumber);
+            return game;
+        }
+    }
+
+    // Unknown names read as null, as reflection does
+    private static <E extends Enum<E>> E enumValue(E[] values, String name) {
+        for (E value : values) {
+            if (value.name().equals(name)) { return value; }
+        }
+        return null;
+    }
+}
@@ -14,6 +14,17 @@ public class ChessPiece {
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
+    // Pieces are immutable, so one instance per color and type can be shared everywhere
+    private static final ChessPiece[] CANONICAL = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                CANONICAL[ChessBoard.pieceIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
@@ -26,6 +37,20 @@ public class ChessPiece {
         // and add others?
     }
 
+    /**
+     * Gets the shared instance for a color and piece type instead of allocating one
+     *
+     * @return the canonical piece
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return CANONICAL[ChessBoard.pieceIndex(pieceColor, type)];
+    }
+
+    // Lookup by ChessBoard.pieceIndex, for undo records that store pieces as numbers
+    static ChessPiece of(int pieceIndex) {
+        return CANONICAL[pieceIndex];
+    }
+
     /**
      * The various different chess piece options
      */
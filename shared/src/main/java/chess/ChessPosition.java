@@ -13,11 +13,40 @@ public class ChessPosition {
     private final int row;
     private final int col;
 
+    // Positions are immutable, so every on-board square gets one shared instance
+    private static final ChessPosition[] CANONICAL = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            CANONICAL[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a square instead of allocating one.
+     * Off-board coordinates still get a new object.
+     *
+     * @return the canonical position
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return CANONICAL[(row - 1) * 8 + col - 1];
+    }
+
+    /**
+     * @return the canonical position for a bitboard square (0 = a1, 63 = h8)
+     */
+    public static ChessPosition of(int square) {
+        return CANONICAL[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -50,7 +79,7 @@ public class ChessPosition {
         int col = file - 'a' + 1;
         int row = rank - '0';
 
-        return new ChessPosition(row, col);
+        return of(row, col);
     }
 
     public String toAlgebraic() {
@@ -0,0 +1,213 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, e.g. the starting position
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1".
+ * All six fields are supported: placement, side to move, castling rights, en passant
+ * square, halfmove clock and fullmove number. The last four may be left off, in
+ * which case there's no castling, no en passant and the clocks start fresh.
+ * <p>
+ * Both directions are a single pass over the characters with no regular
+ * expressions or splitting, so a position costs about as much as building its board.
+ */
+public final class Fen {
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final char[] PIECE_CHARS = {'k', 'q', 'b', 'n', 'r', 'p'}; // by PieceType ordinal
+
+    private Fen() {
+    }
+
+    /**
+     * Builds a game from a FEN string
+     *
+     * @param fen the position
+     * @return a new game set up at that position
+     * @throws IllegalArgumentException if the string isn't valid FEN
+     */
+    public static ChessGame toGame(String fen) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int col = 1;
+        int i = 0;
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 9) { throw new IllegalArgumentException("Bad rank in FEN: " + fen); }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                ChessPiece.PieceType type = pieceType(Character.toLowerCase(c));
+                if (type == null || row < 1 || col > 8) { throw new IllegalArgumentException("Bad FEN: " + fen); }
+                ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.addPiece(ChessPosition.of(row, col), ChessPiece.of(color, type));
+                col++;
+            }
+        }
+        if (row != 1 || col != 9 || i + 1 >= fen.length()) {
+            throw new IllegalArgumentException("Bad FEN: " + fen);
+        }
+
+        ChessGame.TeamColor team = switch (fen.charAt(++i)) {
+            case 'w' -> ChessGame.TeamColor.WHITE;
+            case 'b' -> ChessGame.TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Bad side to move in FEN: " + fen);
+        };
+        i++;
+
+        // castling rights
+        int rights = 0;
+        if (i < fen.length()) {
+            i = expectSpace(fen, i);
+            if (fen.charAt(i) == '-') {
+                i++;
+            } else {
+                for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+                    rights |= switch (fen.charAt(i)) {
+                        case 'K' -> ChessBoard.WHITE_KINGSIDE;
+                        case 'Q' -> ChessBoard.WHITE_QUEENSIDE;
+                        case 'k' -> ChessBoard.BLACK_KINGSIDE;
+                        case 'q' -> ChessBoard.BLACK_QUEENSIDE;
+                        default -> throw new IllegalArgumentException("Bad castling rights in FEN: " + fen);
+                    };
+                }
+            }
+        }
+        board.setCastlingRights(rights);
+
+        // en passant square
+        if (i < fen.length()) {
+            i = expectSpace(fen, i);
+            if (fen.charAt(i) == '-') {
+                i++;
+            } else {
+                if (i + 1 >= fen.length()) { throw new IllegalArgumentException("Bad en passant square in FEN: " + fen); }
+                int file = fen.charAt(i) - 'a';
+                int rank = fen.charAt(i + 1) - '1';
+                int expectedRank = team == ChessGame.TeamColor.WHITE ? 5 : 2;
+                if (file < 0 || file > 7 || rank != expectedRank) {
+                    throw new IllegalArgumentException("Bad en passant square in FEN: " + fen);
+                }
+                setEnPassant(board, team, rank * 8 + file);
+                i += 2;
+            }
+        }
+
+        // clocks
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        if (i < fen.length()) {
+            i = expectSpace(fen, i);
+            int start = i;
+            for (halfmoveClock = 0; i < fen.length() && fen.charAt(i) != ' '; i++) {
+                halfmoveClock = halfmoveClock * 10 + digit(fen, i);
+            }
+            if (i == start) { throw new IllegalArgumentException("Bad halfmove clock in FEN: " + fen); }
+        }
+        if (i < fen.length()) {
+            i = expectSpace(fen, i);
+            int start = i;
+            for (fullmoveNumber = 0; i < fen.length() && fen.charAt(i) != ' '; i++) {
+                fullmoveNumber = fullmoveNumber * 10 + digit(fen, i);
+            }
+            if (i == start || fullmoveNumber < 1) {
+                throw new IllegalArgumentException("Bad fullmove number in FEN: " + fen);
+            }
+        }
+        if (i < fen.length()) {
+            throw new IllegalArgumentException("Unexpected text after FEN: " + fen);
+        }
+
+        ChessGame game = new ChessGame(board, team);
+        game.setHalfmoveClock(halfmoveClock);
+        game.setFullmoveNumber(fullmoveNumber);
+        return game;
+    }
+
+    /**
+     * Writes a game as a FEN string. The en passant field is only filled in
+     * when a capture there is possible, as ChessBoard keeps it.
+     *
+     * @param game the position to write
+     * @return all six FEN fields
+     */
+    public static String toFen(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        StringBuilder fen = new StringBuilder(90);
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = board.getPiece(row * 8 + col);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char c = PIECE_CHARS[piece.getPieceType().ordinal()];
+                fen.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c);
+            }
+            if (empty > 0) { fen.append((char) ('0' + empty)); }
+            if (row > 0) { fen.append('/'); }
+        }
+
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int rights = board.castlingRights();
+        if (rights == 0) {
+            fen.append('-');
+        } else {
+            if ((rights & ChessBoard.WHITE_KINGSIDE) != 0) { fen.append('K'); }
+            if ((rights & ChessBoard.WHITE_QUEENSIDE) != 0) { fen.append('Q'); }
+            if ((rights & ChessBoard.BLACK_KINGSIDE) != 0) { fen.append('k'); }
+            if ((rights & ChessBoard.BLACK_QUEENSIDE) != 0) { fen.append('q'); }
+        }
+
+        int enPassant = board.enPassantSquare();
+        if (enPassant < 0) {
+            fen.append(" -");
+        } else {
+            fen.append(' ').append((char) ('a' + (enPassant & 7))).append((char) ('1' + (enPassant >>> 3)));
+        }
+
+        return fen.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber()).toString();
+    }
+
+    // Only keep the square if a pawn of the side to move can take there, the same
+    // way ChessBoard records it after a double step, so the Zobrist keys agree
+    private static void setEnPassant(ChessBoard board, ChessGame.TeamColor team, int square) {
+        ChessGame.TeamColor pusher = team.opponent();
+        if ((AttackTables.pawnAttacks(pusher, square) & board.pieces(team, ChessPiece.PieceType.PAWN)) != 0) {
+            board.setEnPassantSquare(square);
+        }
+    }
+
+    private static int expectSpace(String fen, int i) {
+        if (fen.charAt(i) != ' ' || i + 1 >= fen.length()) {
+            throw new IllegalArgumentException("Bad FEN: " + fen);
+        }
+        return i + 1;
+    }
+
+    private static int digit(String fen, int i) {
+        char c = fen.charAt(i);
+        if (c < '0' || c > '9') { throw new IllegalArgumentException("Bad number in FEN: " + fen); }
+        return c - '0';
+    }
+
+    static ChessPiece.PieceType pieceType(char c) {
+        return switch (c) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> null;
+        };
+    }
+}
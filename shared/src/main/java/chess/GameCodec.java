@@ -0,0 +1,109 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A compact binary form of a game, for storing it without reflective JSON.
+ * Version 1 is 39 bytes:
+ * <pre>
+ *  0      version
+ *  1..32  the 64 squares a1..h8, two to a byte (low nibble first):
+ *         0 for empty, else 1 + ChessBoard.pieceIndex
+ *  33     bit 0 black to move, bit 1 game over, bits 4..7 castling rights
+ *  34     0, or 1 + the en passant square
+ *  35..36 halfmove clock
+ *  37..38 fullmove number
+ * </pre>
+ * The repetition history isn't stored; a decoded game knows only its own
+ * position. Whoever loads it replays the moves since the last capture or pawn
+ * move (the halfmove clock says how many) to count repetitions again.
+ * <p>
+ * The first byte is the version so the layout can change later without
+ * breaking stored games; decode refuses versions it doesn't know.
+ */
+public final class GameCodec {
+    public static final int VERSION = 1;
+
+    private static final int BYTES = 39;
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int GAME_OVER = 2;
+    private static final int CASTLING_SHIFT = 4;
+
+    private GameCodec() {
+    }
+
+    /**
+     * @param game the game to store
+     * @return its 39 byte encoding
+     * @throws IllegalArgumentException if a clock doesn't fit in two bytes
+     */
+    public static byte[] encode(ChessGame game) {
+        ByteBuffer out = ByteBuffer.allocate(BYTES);
+        out.put((byte) VERSION);
+
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square += 2) {
+            out.put((byte) (nibble(board.getPiece(square)) | nibble(board.getPiece(square + 1)) << 4));
+        }
+
+        int flags = board.castlingRights() << CASTLING_SHIFT;
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) { flags |= BLACK_TO_MOVE; }
+        if (game.isGameOver()) { flags |= GAME_OVER; }
+        out.put((byte) flags);
+        out.put((byte) (board.enPassantSquare() + 1));
+        out.putShort(unsignedShort(game.getHalfmoveClock(), "halfmove clock"));
+        out.putShort(unsignedShort(game.getFullmoveNumber(), "fullmove number"));
+        return out.array();
+    }
+
+    /**
+     * @param bytes an encoding made by encode
+     * @return a new game in the encoded position
+     * @throws IllegalArgumentException if the bytes aren't a game this version can read
+     */
+    public static ChessGame decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            int version = in.get();
+            if (version != VERSION) { throw new IllegalArgumentException("Unknown game encoding version " + version); }
+
+            ChessBoard board = new ChessBoard();
+            for (int square = 0; square < 64; square += 2) {
+                int pair = in.get() & 0xFF;
+                addPiece(board, square, pair & 15);
+                addPiece(board, square + 1, pair >>> 4);
+            }
+
+            int flags = in.get() & 0xFF;
+            int enPassant = (in.get() & 0xFF) - 1;
+            if (enPassant > 63) { throw new IllegalArgumentException("Bad en passant square " + enPassant); }
+            board.setCastlingRights(flags >>> CASTLING_SHIFT);
+            board.setEnPassantSquare(enPassant);
+
+            ChessGame game = new ChessGame(board, (flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+            game.setGameOver((flags & GAME_OVER) != 0);
+            game.setHalfmoveClock(in.getShort() & 0xFFFF);
+            game.setFullmoveNumber(in.getShort() & 0xFFFF);
+            if (in.hasRemaining()) { throw new IllegalArgumentException("Unexpected bytes after game"); }
+            return game;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Game encoding is cut short", e);
+        }
+    }
+
+    private static int nibble(ChessPiece piece) {
+        return piece == null ? 0 : 1 + ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+    }
+
+    private static void addPiece(ChessBoard board, int square, int nibble) {
+        if (nibble == 0) { return; }
+        if (nibble > 12) { throw new IllegalArgumentException("Bad piece code " + nibble); }
+        board.addPiece(ChessPosition.of(square), ChessPiece.of(nibble - 1));
+    }
+
+    private static short unsignedShort(int value, String name) {
+        if (value < 0 || value > 0xFFFF) { throw new IllegalArgumentException(name + " out of range: " + value); }
+        return (short) value;
+    }
+}
@@ -0,0 +1,35 @@
+package chess;
+
+/**
+ * Snapshot of where a game stands for the team whose turn it is
+ *
+ * @param teamToMove     the team the status describes
+ * @param inCheck        whether that team's king is attacked
+ * @param checkmate      in check with no legal moves
+ * @param stalemate      not in check but no legal moves
+ * @param legalMoveCount how many legal moves the team has
+ * @param drawReason     the draw rule that ends the game, or null if none does
+ */
+public record GameStatus(ChessGame.TeamColor teamToMove, boolean inCheck, boolean checkmate, boolean stalemate,
+                         int legalMoveCount, DrawReason drawReason) {
+
+    /**
+     * Draws other than stalemate
+     */
+    public enum DrawReason {
+        THREEFOLD_REPETITION,
+        FIFTY_MOVE_RULE,
+        INSUFFICIENT_MATERIAL
+    }
+
+    public boolean isDraw() {
+        return stalemate || drawReason != null;
+    }
+
+    /**
+     * @return whether the game can't go on: checkmate or any kind of draw
+     */
+    public boolean isGameOver() {
+        return checkmate || isDraw();
+    }
+}
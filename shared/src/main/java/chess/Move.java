@@ -0,0 +1,91 @@
+package chess;
+
+/**
+ * Moves packed into a single int, for the engine internals where building a
+ * ChessMove (and two ChessPositions) per move would be the main cost.
+ * <p>
+ * Layout: bits 0-5 start square, 6-11 end square (0 = a1, 63 = h8),
+ * 12-14 promotion piece (0 for none, otherwise PieceType ordinal + 1),
+ * and flag bits from 15 up.
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int CASTLE = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17; // also marked CAPTURE
+
+    private static final int MOVE_BITS = (1 << 15) - 1; // squares and promotion, no flags
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promo = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | to << 6 | promo << 12 | flags;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return move >>> 6 & 63;
+    }
+
+    /**
+     * @return the piece a pawn promotes to, or null if the move isn't a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promo = move >>> 12 & 7;
+        return promo == 0 ? null : TYPES[promo - 1];
+    }
+
+    /**
+     * @return whether two moves have the same squares and promotion, ignoring flags
+     */
+    public static boolean sameMove(int a, int b) {
+        return (a & MOVE_BITS) == (b & MOVE_BITS);
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    /**
+     * Converts to the public move type, using the shared ChessPosition instances
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+
+    /**
+     * Packs a ChessMove; flags aren't known from a ChessMove alone, so none are set
+     */
+    public static int fromChessMove(ChessMove move) {
+        return encode(ChessBoard.square(move.getStartPosition()), ChessBoard.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. "e2e4" or "a7a8q"
+     */
+    public static String toString(int move) {
+        String name = ChessPosition.of(from(move)).toAlgebraic() + ChessPosition.of(to(move)).toAlgebraic();
+        ChessPiece.PieceType promotion = promotion(move);
+        if (promotion != null) {
+            name += promotion == ChessPiece.PieceType.KNIGHT ? 'n' : Character.toLowerCase(promotion.name().charAt(0));
+        }
+        return name;
+    }
+}
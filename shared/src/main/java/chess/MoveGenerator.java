@@ -0,0 +1,241 @@
+package chess;
+
+import java.util.Collection;
+
+/**
+ * Generates only legal moves, without trying each move and testing for check.
+ * For a position it works out once which enemy pieces give check, which of our
+ * pieces are pinned to the king and along which line, and which squares the
+ * enemy controls. Every piece's targets are then masked by those sets, so the
+ * cost is about one table lookup per piece instead of one board scan per move.
+ * <p>
+ * Castling and en passant are the exceptions that need more than a mask: a
+ * castle checks every square the king crosses against the enemy's control, and
+ * an en passant capture takes two pawns off one rank at once (which can uncover
+ * a rook or queen on the king), so it is checked against the position after it.
+ * <p>
+ * Moves come out packed as ints (see Move) into a reusable MoveList; the
+ * Collection overload converts to ChessMove for the public API.
+ */
+public final class MoveGenerator {
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+    private static final long PROMOTION_RANKS = RANK_1 | RANK_8;
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT
+    };
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds every legal move for a team to the list
+     *
+     * @param board the position
+     * @param color whose moves to generate
+     * @param fromMask only pieces on these squares are considered (-1L for all)
+     * @param moves where to put the moves
+     */
+    public static void legalMoves(ChessBoard board, ChessGame.TeamColor color, long fromMask, MoveList moves) {
+        generate(board, color, fromMask, false, moves);
+    }
+
+    /**
+     * Adds only a team's legal captures (en passant included) and promotions, for
+     * searches that resolve exchanges; quiet moves are never generated
+     *
+     * @param board the position
+     * @param color whose moves to generate
+     * @param moves where to put the moves
+     */
+    public static void captures(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        generate(board, color, -1L, true, moves);
+    }
+
+    /**
+     * Adds every legal move for a team to the collection as ChessMoves
+     */
+    public static void legalMoves(ChessBoard board, ChessGame.TeamColor color, long fromMask,
+                                  Collection<ChessMove> moves) {
+        MoveList list = new MoveList();
+        generate(board, color, fromMask, false, list);
+        for (int i = 0; i < list.size(); i++) {
+            moves.add(Move.toChessMove(list.get(i)));
+        }
+    }
+
+    /**
+     * Counts a team's legal moves without listing them
+     */
+    public static int countLegalMoves(ChessBoard board, ChessGame.TeamColor color) {
+        return generate(board, color, -1L, false, null);
+    }
+
+    // Adds to moves when it isn't null, and returns how many legal moves there are either way.
+    // With capturesOnly, targets are cut down to enemy pieces (and the last rank for pawns)
+    private static int generate(ChessBoard board, ChessGame.TeamColor color, long fromMask, boolean capturesOnly,
+                                MoveList moves) {
+        ChessGame.TeamColor enemy = color.opponent();
+        long own = board.pieces(color);
+        long enemies = board.pieces(enemy);
+        long occupied = board.occupied();
+        long king = board.pieces(color, ChessPiece.PieceType.KING);
+        long captureMask = capturesOnly ? enemies : -1L;
+        long pawnCaptureMask = capturesOnly ? enemies | PROMOTION_RANKS : -1L;
+        int count = 0;
+
+        // boards without a king (allowed in tests) have no checks or pins to respect
+        long checkMask = -1L;
+        long pinned = 0L;
+        int kingSquare = -1;
+        if (king != 0) {
+            kingSquare = Long.numberOfTrailingZeros(king);
+            long checkers = AttackTables.attackersOf(board, kingSquare, enemy, occupied);
+            if ((fromMask & king) != 0) {
+                long danger = enemyControl(board, enemy, occupied ^ king);
+                long targets = AttackTables.kingAttacks(kingSquare) & ~own & ~danger & captureMask;
+                count += addMoves(moves, kingSquare, targets, enemies, false);
+                if (checkers == 0 && !capturesOnly) {
+                    count += addCastles(board, color, kingSquare, occupied, danger, moves);
+                }
+            }
+            if (Long.bitCount(checkers) > 1) {
+                return count; // double check, only the king can move
+            }
+            if (checkers != 0) {
+                int checker = Long.numberOfTrailingZeros(checkers);
+                checkMask = checkers | AttackTables.between(kingSquare, checker);
+            }
+            pinned = pinnedPieces(board, kingSquare, enemy, own, occupied);
+        }
+
+        long enPassant = PieceMovesCalculator.enPassantTarget(board, color);
+        for (long pieces = own & ~king & fromMask; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            ChessPiece piece = board.getPiece(square);
+            boolean pawn = piece.getPieceType() == ChessPiece.PieceType.PAWN;
+            long targets = PieceMovesCalculator.getTargets(board, piece, square);
+            if (pawn && (targets & enPassant) != 0) {
+                targets &= ~enPassant;
+                if (enPassantIsLegal(board, enemy, square, Long.numberOfTrailingZeros(enPassant), kingSquare)) {
+                    if (moves != null) {
+                        moves.add(Move.encode(square, Long.numberOfTrailingZeros(enPassant), null,
+                                Move.CAPTURE | Move.EN_PASSANT));
+                    }
+                    count++;
+                }
+            }
+            targets &= checkMask & (pawn ? pawnCaptureMask : captureMask);
+            if ((pinned & (1L << square)) != 0) {
+                targets &= AttackTables.line(kingSquare, square);
+            }
+            count += addMoves(moves, square, targets, enemies, pawn);
+        }
+        return count;
+    }
+
+    // Castles need the rights, the rook at home, empty squares up to it, and
+    // no enemy control of the squares the king passes or lands on
+    private static int addCastles(ChessBoard board, ChessGame.TeamColor color, int kingSquare, long occupied,
+                                  long danger, MoveList moves) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int home = white ? 4 : 60;
+        if (kingSquare != home) { return 0; }
+        int rights = board.castlingRights();
+        long rooks = board.pieces(color, ChessPiece.PieceType.ROOK);
+        int count = 0;
+
+        int kingside = white ? ChessBoard.WHITE_KINGSIDE : ChessBoard.BLACK_KINGSIDE;
+        long kingsidePath = 3L << (home + 1); // f and g files
+        if ((rights & kingside) != 0 && (rooks & 1L << (home + 3)) != 0
+                && (occupied & kingsidePath) == 0 && (danger & kingsidePath) == 0) {
+            if (moves != null) { moves.add(Move.encode(home, home + 2, null, Move.CASTLE)); }
+            count++;
+        }
+
+        int queenside = white ? ChessBoard.WHITE_QUEENSIDE : ChessBoard.BLACK_QUEENSIDE;
+        long queensideEmpty = 7L << (home - 3); // b, c and d files
+        long queensidePath = 3L << (home - 2);  // only c and d have to be safe
+        if ((rights & queenside) != 0 && (rooks & 1L << (home - 4)) != 0
+                && (occupied & queensideEmpty) == 0 && (danger & queensidePath) == 0) {
+            if (moves != null) { moves.add(Move.encode(home, home - 2, null, Move.CASTLE)); }
+            count++;
+        }
+        return count;
+    }
+
+    // Plays the capture on the occupancy alone and looks for anything that would
+    // then attack the king, which covers checks, diagonal pins and the case of
+    // both pawns leaving a rank that a rook or queen shares with the king
+    private static boolean enPassantIsLegal(ChessBoard board, ChessGame.TeamColor enemy, int from, int to,
+                                            int kingSquare) {
+        if (kingSquare < 0) { return true; }
+        long captured = 1L << ((from & 56) | (to & 7));
+        long occupied = (board.occupied() ^ (1L << from) ^ captured) | (1L << to);
+        return (AttackTables.attackersOf(board, kingSquare, enemy, occupied) & ~captured) == 0;
+    }
+
+    // Every square the enemy attacks, with our king lifted off the board so it
+    // can't step backwards along a checking ray
+    private static long enemyControl(ChessBoard board, ChessGame.TeamColor enemy, long occupied) {
+        long control = 0L;
+        for (long pieces = board.pieces(enemy); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            control |= AttackTables.attacks(board.getPiece(square), square, occupied);
+        }
+        return control;
+    }
+
+    // Our pieces that are the only thing between the king and an enemy slider
+    private static long pinnedPieces(ChessBoard board, int kingSquare, ChessGame.TeamColor enemy,
+                                     long own, long occupied) {
+        long enemies = board.pieces(enemy);
+        long queens = board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (AttackTables.rookAttacks(kingSquare, enemies)
+                & (board.pieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (AttackTables.bishopAttacks(kingSquare, enemies)
+                & (board.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+        long pinned = 0L;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = AttackTables.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    private static int addMoves(MoveList moves, int from, long targets, long enemies, boolean pawn) {
+        long promotions = pawn ? targets & PROMOTION_RANKS : 0L;
+        if (moves == null) {
+            return Long.bitCount(targets) + 3 * Long.bitCount(promotions);
+        }
+        int count = 0;
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int flags = (enemies & (1L << to)) != 0 ? Move.CAPTURE : 0;
+            if ((promotions & (1L << to)) != 0) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    moves.add(Move.encode(from, to, promotion, flags));
+                    count++;
+                }
+            } else {
+                moves.add(Move.encode(from, to, null, flags));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static void addMoves(Collection<ChessMove> moves, int from, long targets, boolean pawn) {
+        MoveList list = new MoveList(32);
+        addMoves(list, from, targets, 0L, pawn);
+        for (int i = 0; i < list.size(); i++) {
+            moves.add(Move.toChessMove(list.get(i)));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth. The counts for
+ * well known positions are published, so perft proves the move generator right,
+ * and timing it shows how fast it is.
+ * <p>
+ * Usage: {@code java chess.Perft <depth> [fen]}, prints the count under each root
+ * move (divide), the total and nodes per second, then runs the same count on
+ * every core and prints the speedup.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Perft <depth> [fen]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        String fen = args.length > 1 ? String.join(" ", List.of(args).subList(1, args.length)) : Fen.START;
+        ChessGame game = Fen.toGame(fen);
+
+        long start = System.nanoTime();
+        Map<String, Long> divide = divide(game, depth);
+        long elapsed = System.nanoTime() - start;
+
+        long total = 0;
+        for (var entry : divide.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        double seconds = elapsed / 1e9;
+        System.out.printf("%nNodes: %d%nTime: %.3f s%nNPS: %.0f%n", total, seconds, total / Math.max(seconds, 1e-9));
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        start = System.nanoTime();
+        long parallel = parallelPerft(game, depth, pool);
+        double parallelSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%nParallel (%d threads)%nNodes: %d%nTime: %.3f s%nNPS: %.0f%nSpeedup: %.2fx%n",
+                pool.getParallelism(), parallel, parallelSeconds, parallel / Math.max(parallelSeconds, 1e-9),
+                seconds / Math.max(parallelSeconds, 1e-9));
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves
+     */
+    public static long perft(ChessGame game, int depth) {
+        return perft(game.getBoard(), game.getTeamTurn(), depth);
+    }
+
+    /**
+     * Same count as perft, with the tree split across the pool's threads. The
+     * first two plies become fork/join tasks so the work stays balanced even
+     * when a few root moves have much bigger subtrees than the rest.
+     */
+    public static long parallelPerft(ChessGame game, int depth, ForkJoinPool pool) {
+        if (depth <= 1) {
+            return perft(game, depth);
+        }
+        int split = Math.min(2, depth - 1);
+        return TreeWalk.reduce(game, split, pool,
+                (board, team) -> perft(board, team, depth - split), Long::sum, 0L);
+    }
+
+    /**
+     * Counts the positions under each legal root move, keyed like "e2e4" or "a7a8q"
+     */
+    public static Map<String, Long> divide(ChessGame game, int depth) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor team = game.getTeamTurn();
+        MoveList[] lists = moveLists(depth);
+        MoveList moves = lists[0];
+        MoveGenerator.legalMoves(board, team, -1L, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            long undo = board.makeMove(move);
+            result.put(Move.toString(move), depth <= 1 ? 1L : perft(board, team.opponent(), depth - 1, lists, 1));
+            board.unmakeMove(undo);
+        }
+        return result;
+    }
+
+    static long perft(ChessBoard board, ChessGame.TeamColor team, int depth) {
+        return perft(board, team, depth, moveLists(depth), 0);
+    }
+
+    // one reusable move list per ply, so the search itself allocates nothing
+    private static long perft(ChessBoard board, ChessGame.TeamColor team, int depth, MoveList[] lists, int ply) {
+        if (depth == 0) { return 1; }
+        if (depth == 1) { return MoveGenerator.countLegalMoves(board, team); } // bulk count the leaves
+
+        MoveList moves = lists[ply];
+        moves.clear();
+        MoveGenerator.legalMoves(board, team, -1L, moves);
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long undo = board.makeMove(moves.get(i));
+            nodes += perft(board, team.opponent(), depth - 1, lists, ply + 1);
+            board.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    private static MoveList[] moveLists(int depth) {
+        MoveList[] lists = new MoveList[Math.max(depth, 1)];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+}
@@ -5,51 +5,70 @@ import java.util.Collection;
 
 /**
  * Calculates moves for each piece
- * Still needs:
- *    - all Pawn moves
- *    - Check if move is blocked
- *    - Capturing enemy pieces
+ * Target squares come from AttackTables, so a piece's moves are a couple of
+ * table lookups and masks; ChessMoves are only built for the squares that survive.
+ * Does not check whether a move leaves the king in check, and leaves out
+ * castling, which needs to know the squares the enemy attacks (see MoveGenerator).
  */
 
 public class PieceMovesCalculator {
     public Collection<ChessMove> getMoves(ChessBoard board, ChessPosition myPosition) {
         ChessPiece piece = board.getPiece(myPosition);
-        PieceMovement pieceMoves = PieceMovement.valueOf(piece.getPieceType().name());
-        int[][] directions = pieceMoves.directions;
-        boolean slider = pieceMoves.slider;
+        int square = ChessBoard.square(myPosition);
         ArrayList<ChessMove> moves = new ArrayList<>();
+        boolean pawn = piece.getPieceType() == ChessPiece.PieceType.PAWN;
+        MoveGenerator.addMoves(moves, square, getTargets(board, piece, square), pawn);
+        return moves;
+    }
 
-        // pawnMovement does all pawn moves
+    /**
+     * Gets every square a piece can move to, ignoring checks
+     *
+     * @return bitboard of pseudo-legal destination squares
+     */
+    public static long getTargets(ChessBoard board, ChessPiece piece, int square) {
         if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
-            return pawnMovement(board, myPosition);
+            return pawnTargets(board, piece.getTeamColor(), square);
         }
+        long own = board.pieces(piece.getTeamColor());
+        return AttackTables.attacks(piece, square, board.occupied()) & ~own;
+    }
 
-        for(int[] i : directions) {
-            int dx = i[0];
-            int dy = i[1];
-            int row = myPosition.getRow() + dx;
-            int col = myPosition.getColumn() + dy;
-
-            while(isOnBoard(row, col)) {
-                ChessPosition newPosition = new ChessPosition(row, col);
-                ChessPiece target = board.getPiece(newPosition);
-                if (target == null) {
-                    moves.add(new ChessMove(myPosition, newPosition, null));
-                } else {
-                     if (target.getTeamColor() != piece.getTeamColor()) {
-                         moves.add(new ChessMove(myPosition, newPosition, null));
-                     }
-                     break;
-                }
-                if (!slider) { break; } //Knight and King don't move continuously
-
-                row += dx;
-                col += dy;
-            }
+    private static long pawnTargets(ChessBoard board, ChessGame.TeamColor color, int square) {
+        long empty = ~board.occupied();
+        long enemies = board.pieces(color.opponent());
+        long from = 1L << square;
+        long single;
+        long doubled;
+        if (color == ChessGame.TeamColor.WHITE) {
+            single = (from << 8) & empty;
+            doubled = square / 8 == 1 ? (single << 8) & empty : 0L;
+        } else {
+            single = (from >>> 8) & empty;
+            doubled = square / 8 == 6 ? (single >>> 8) & empty : 0L;
         }
-        return moves;
+        return single | doubled | (AttackTables.pawnAttacks(color, square) & (enemies | enPassantTarget(board, color)));
+    }
+
+    /**
+     * @return the en passant square as a bitboard if the given team can capture
+     * onto it this move, otherwise 0
+     */
+    static long enPassantTarget(ChessBoard board, ChessGame.TeamColor color) {
+        int square = board.enPassantSquare();
+        if (square < 0) { return 0L; }
+        // white captures onto the sixth rank, black onto the third
+        int rank = color == ChessGame.TeamColor.WHITE ? 5 : 2;
+        return square >>> 3 == rank ? 1L << square : 0L;
     }
 
+    /**
+     * The step directions each piece used to be walked along one square at a time.
+     *
+     * @deprecated moves now come from the AttackTables lookups; kept so code that
+     * used these directions still compiles
+     */
+    @Deprecated
     public enum PieceMovement {
         BISHOP(new int[][] {{1,1}, {-1,1}, {1,-1}, {-1,-1}}, true),
         ROOK(new int[][] {{0,1}, {0,-1}, {1,0}, {-1,0}}, true),
@@ -66,56 +85,4 @@ public class PieceMovesCalculator {
             this.slider = slider;
         }
     }
-
-    private Collection<ChessMove> pawnMovement(ChessBoard board, ChessPosition myPosition) {
-        ArrayList<ChessMove> moves = new ArrayList<>();
-        ChessPiece piece = board.getPiece(myPosition);
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-        int pawnDirection;
-        int promotionRow;
-
-        // real proud of these :)
-        if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) { promotionRow= 8; } else { promotionRow = 1; }
-        if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) { pawnDirection = 1;}  else { pawnDirection= -1; }
-        int pawnRow = row + pawnDirection;
-
-        if (isOnBoard(pawnRow, col) && board.getPiece(new ChessPosition(pawnRow, col)) == null) {
-            // Base move
-            addPawnMove(myPosition, pawnRow, col, promotionRow, moves);
-            if (piece.getTeamColor() == ChessGame.TeamColor.WHITE && row == 2 || (piece.getTeamColor() == ChessGame.TeamColor.BLACK && row == 7)) {
-                // Initial 2 square move
-                if (board.getPiece(new ChessPosition(pawnRow + pawnDirection, col)) == null) {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(pawnRow + pawnDirection, col), null));
-                }
-            }
-        }
-        // capture pieces
-        int[] captureColumns = {col - 1, col + 1};
-        for (int cCol : captureColumns) {
-            if(isOnBoard(pawnRow, cCol)) {
-                ChessPiece target = board.getPiece(new ChessPosition(pawnRow, cCol));
-                if(target != null && target.getTeamColor() != piece.getTeamColor()) {
-                    addPawnMove(myPosition, pawnRow, cCol, promotionRow, moves);
-                }
-            }
-        }
-        return moves;
-    }
-
-    private void addPawnMove(ChessPosition from, int row, int col, int promotionRow, ArrayList<ChessMove> moves) {
-        ChessPosition to = new ChessPosition(row, col);
-        if (row == promotionRow) {
-            moves.add(new ChessMove(from, to, ChessPiece.PieceType.QUEEN));
-            moves.add(new ChessMove(from, to, ChessPiece.PieceType.ROOK));
-            moves.add(new ChessMove(from, to, ChessPiece.PieceType.BISHOP));
-            moves.add(new ChessMove(from, to, ChessPiece.PieceType.KNIGHT));
-        } else {
-            moves.add(new ChessMove(from, to, null));
-        }
-    }
-
-    private boolean isOnBoard(int row, int col) {
-        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,216 @@
+package chess;
+
+/**
+ * Standard Algebraic Notation, the move format used by PGN and most chess
+ * software: "e4", "Nxf3", "exd6", "R1e2", "e8=Q+", "O-O-O".
+ * A SAN move only means something in a position, so it is resolved against the
+ * legal moves of the game it's played in.
+ */
+public final class San {
+    private static final char[] PIECE_LETTERS = {'K', 'Q', 'B', 'N', 'R', 0}; // by PieceType ordinal
+
+    private San() {
+    }
+
+    /**
+     * Writes a move in SAN, with just enough of the start square to tell it apart
+     * from other moves of the same kind of piece to the same square, and "+" or
+     * "#" when it gives check or mate
+     *
+     * @param game the position before the move; its board is used to try the
+     *             move and is left as it was
+     * @param move a legal move in that position
+     * @return e.g. "Nbd7", "exd5", "e8=Q+", "O-O"
+     * @throws IllegalArgumentException if the move isn't legal
+     */
+    public static String toSan(ChessGame game, ChessMove move) {
+        ChessBoard board = game.getBoard();
+        MoveList legal = new MoveList();
+        MoveGenerator.legalMoves(board, game.getTeamTurn(), -1L, legal);
+        int wanted = Move.fromChessMove(move);
+        for (int i = 0; i < legal.size(); i++) {
+            if (Move.sameMove(legal.get(i), wanted)) {
+                return toSan(board, game.getTeamTurn(), legal, legal.get(i));
+            }
+        }
+        throw new IllegalArgumentException("Illegal move " + move);
+    }
+
+    /**
+     * Writes one move of an already generated legal move list, so naming every
+     * move in a position only generates the moves once
+     */
+    static String toSan(ChessBoard board, ChessGame.TeamColor team, MoveList legal, int move) {
+        StringBuilder san = new StringBuilder(8);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece piece = board.getPiece(from);
+
+        if (Move.isCastle(move)) {
+            san.append(to > from ? "O-O" : "O-O-O");
+        } else if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            if (Move.isCapture(move)) {
+                san.append((char) ('a' + (from & 7))).append('x');
+            }
+            appendSquare(san, to);
+            if (Move.promotion(move) != null) {
+                san.append('=').append(PIECE_LETTERS[Move.promotion(move).ordinal()]);
+            }
+        } else {
+            san.append(PIECE_LETTERS[piece.getPieceType().ordinal()]);
+            appendDisambiguation(san, board, legal, piece, from, to);
+            if (Move.isCapture(move)) { san.append('x'); }
+            appendSquare(san, to);
+        }
+
+        long undo = board.makeMove(move);
+        ChessGame.TeamColor enemy = team.opponent();
+        long king = board.pieces(enemy, ChessPiece.PieceType.KING);
+        if (king != 0 && AttackTables.isAttacked(board, Long.numberOfTrailingZeros(king), team)) {
+            san.append(MoveGenerator.countLegalMoves(board, enemy) == 0 ? '#' : '+');
+        }
+        board.unmakeMove(undo);
+        return san.toString();
+    }
+
+    // The file if that's enough, else the rank, else both
+    private static void appendDisambiguation(StringBuilder san, ChessBoard board, MoveList legal, ChessPiece piece,
+                                             int from, int to) {
+        boolean clash = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < legal.size(); i++) {
+            int other = Move.from(legal.get(i));
+            if (other == from || Move.to(legal.get(i)) != to || !piece.equals(board.getPiece(other))) { continue; }
+            clash = true;
+            sameFile |= (other & 7) == (from & 7);
+            sameRank |= other >>> 3 == from >>> 3;
+        }
+        if (!clash) { return; }
+        if (!sameFile) {
+            san.append((char) ('a' + (from & 7)));
+        } else if (!sameRank) {
+            san.append((char) ('1' + (from >>> 3)));
+        } else {
+            appendSquare(san, from);
+        }
+    }
+
+    private static void appendSquare(StringBuilder san, int square) {
+        san.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+
+    /**
+     * Finds the legal move a SAN string describes. Check, mate and annotation
+     * suffixes ("+", "#", "!?") are accepted and ignored, as are "0-0" castles
+     * and promotions written without the "=".
+     *
+     * @param game the position the move is played in, with the right team to move
+     * @param san  the move text
+     * @return the matching legal move
+     * @throws IllegalArgumentException if the text isn't SAN, or matches no legal
+     *                                  move or more than one
+     */
+    public static ChessMove parse(ChessGame game, String san) {
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor team = game.getTeamTurn();
+        MoveList moves = new MoveList();
+        MoveGenerator.legalMoves(board, team, -1L, moves);
+
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) { end--; }
+        if (end < 2) { throw new IllegalArgumentException("Not a SAN move: " + san); }
+
+        if (isCastle(san, end)) {
+            boolean queenside = end == 5;
+            int home = team == ChessGame.TeamColor.WHITE ? 4 : 60;
+            return castle(moves, san, home, queenside ? home - 2 : home + 2);
+        }
+
+        // [piece][from file][from rank][x]to[=promotion]
+        ChessPiece.PieceType piece = ChessPiece.PieceType.PAWN;
+        int i = 0;
+        char first = san.charAt(0);
+        if (first >= 'A' && first <= 'Z') {
+            piece = Fen.pieceType(Character.toLowerCase(first));
+            if (piece == null || piece == ChessPiece.PieceType.PAWN) {
+                throw new IllegalArgumentException("Not a SAN move: " + san);
+            }
+            i = 1;
+        }
+
+        ChessPiece.PieceType promotion = null;
+        char last = san.charAt(end - 1);
+        if (last >= 'A' && last <= 'Z') {
+            promotion = Fen.pieceType(Character.toLowerCase(last));
+            if (promotion == null || promotion == ChessPiece.PieceType.KING || promotion == ChessPiece.PieceType.PAWN) {
+                throw new IllegalArgumentException("Bad promotion piece in " + san);
+            }
+            end--;
+            if (end > 0 && san.charAt(end - 1) == '=') { end--; }
+        }
+
+        if (end - i < 2) { throw new IllegalArgumentException("Not a SAN move: " + san); }
+        int to = square(san, end - 2);
+        if (to < 0) { throw new IllegalArgumentException("Bad destination square in " + san); }
+
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int j = i; j < end - 2; j++) {
+            char c = san.charAt(j);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw new IllegalArgumentException("Not a SAN move: " + san);
+            }
+        }
+
+        int pieceIndex = ChessBoard.pieceIndex(team, piece);
+        int found = Move.NONE;
+        for (int k = 0; k < moves.size(); k++) {
+            int move = moves.get(k);
+            int from = Move.from(move);
+            ChessPiece moved = board.getPiece(from);
+            if (Move.to(move) != to || Move.promotion(move) != promotion
+                    || ChessBoard.pieceIndex(moved.getTeamColor(), moved.getPieceType()) != pieceIndex
+                    || (fromFile >= 0 && (from & 7) != fromFile) || (fromRank >= 0 && from >>> 3 != fromRank)) {
+                continue;
+            }
+            if (found != Move.NONE) { throw new IllegalArgumentException("Ambiguous move " + san); }
+            found = move;
+        }
+        if (found == Move.NONE) { throw new IllegalArgumentException("Illegal move " + san); }
+        return Move.toChessMove(found);
+    }
+
+    private static boolean isCastle(String san, int end) {
+        char o = san.charAt(0);
+        if (o != 'O' && o != '0') { return false; }
+        if (end != 3 && end != 5) { return false; }
+        for (int j = 0; j < end; j++) {
+            char expected = j % 2 == 0 ? o : '-';
+            if (san.charAt(j) != expected) { return false; }
+        }
+        return true;
+    }
+
+    private static ChessMove castle(MoveList moves, String san, int from, int to) {
+        for (int k = 0; k < moves.size(); k++) {
+            int move = moves.get(k);
+            if (Move.from(move) == from && Move.to(move) == to && Move.isCastle(move)) {
+                return Move.toChessMove(move);
+            }
+        }
+        throw new IllegalArgumentException("Illegal move " + san);
+    }
+
+    // a square like "e4" at index i, or -1
+    private static int square(String text, int i) {
+        int file = text.charAt(i) - 'a';
+        int rank = text.charAt(i + 1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) { return -1; }
+        return rank * 8 + file;
+    }
+}
@@ -0,0 +1,128 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Walks the legal move tree of a game in parallel on a ForkJoinPool.
+ * The first few plies are expanded into fork/join tasks, each holding its own
+ * copy of the board, and every position at the split depth is handed to a
+ * PositionTask that can search below it single-threaded with make/unmake.
+ * The results are then combined back up the tree.
+ * <p>
+ * The game passed in is never changed.
+ */
+public final class TreeWalk {
+
+    /**
+     * Work to do on one position of the tree. The board belongs to the calling
+     * thread, so the task may make and unmake moves on it, but it must leave
+     * the board as it found it.
+     */
+    @FunctionalInterface
+    public interface PositionTask<R> {
+        R apply(ChessBoard board, ChessGame.TeamColor team);
+    }
+
+    private TreeWalk() {
+    }
+
+    /**
+     * Runs the task under every position exactly splitDepth moves deep and
+     * combines the results
+     *
+     * @param splitDepth how many plies to expand into parallel tasks
+     * @param empty      the result for a branch with no positions under it
+     */
+    public static <R> R reduce(ChessGame game, int splitDepth, ForkJoinPool pool,
+                               PositionTask<R> task, BinaryOperator<R> combine, R empty) {
+        ChessBoard board = new ChessBoard(game.getBoard());
+        return pool.invoke(new WalkTask<>(board, game.getTeamTurn(), Move.NONE, splitDepth, task, combine, empty));
+    }
+
+    /**
+     * Runs the task under each legal root move in parallel
+     *
+     * @return the result for each root move, keyed like "e2e4" or "a7a8q", in generation order
+     */
+    public static <R> Map<String, R> divide(ChessGame game, ForkJoinPool pool, PositionTask<R> task) {
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor team = game.getTeamTurn();
+        MoveList moves = new MoveList();
+        MoveGenerator.legalMoves(board, team, -1L, moves);
+
+        List<WalkTask<R>> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            tasks.add(new WalkTask<>(new ChessBoard(board), team, moves.get(i), 0, task, null, null));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        Map<String, R> result = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            result.put(Move.toString(moves.get(i)), tasks.get(i).join());
+        }
+        return result;
+    }
+
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable, but a walk never leaves the pool
+    private static final class WalkTask<R> extends RecursiveTask<R> {
+        private final ChessBoard board;
+        private final ChessGame.TeamColor team;
+        private final int move;
+        private final int depth;
+        private final PositionTask<R> task;
+        private final BinaryOperator<R> combine;
+        private final R empty;
+
+        // board is owned by this task; move (if any) is played on it before walking
+        WalkTask(ChessBoard board, ChessGame.TeamColor team, int move, int depth,
+                 PositionTask<R> task, BinaryOperator<R> combine, R empty) {
+            this.board = board;
+            this.team = team;
+            this.move = move;
+            this.depth = depth;
+            this.task = task;
+            this.combine = combine;
+            this.empty = empty;
+        }
+
+        @Override
+        protected R compute() {
+            ChessGame.TeamColor toMove = team;
+            if (move != Move.NONE) {
+                board.makeMove(move);
+                toMove = team.opponent();
+            }
+            if (depth == 0) {
+                return task.apply(board, toMove);
+            }
+
+            MoveList moves = new MoveList();
+            MoveGenerator.legalMoves(board, toMove, -1L, moves);
+            List<WalkTask<R>> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                children.add(new WalkTask<>(new ChessBoard(board), toMove, moves.get(i), depth - 1,
+                        task, combine, empty));
+            }
+            invokeAll(children);
+
+            R result = empty;
+            for (WalkTask<R> child : children) {
+                result = combine.apply(result, child.join());
+            }
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the keys for
+ * each piece on its square, plus the side, castling and en passant keys that
+ * apply, so playing a move only has to XOR out what changed.
+ * The keys come from a fixed seed so they stay the same across restarts and
+ * can be stored alongside games.
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_SQUARE = new long[12][64]; // [ChessBoard.pieceIndex][square]
+    private static final long[] CASTLING = new long[16];           // one per castling rights mask
+    private static final long[] EN_PASSANT = new long[8];          // one per en passant file
+    private static final long BLACK_TO_MOVE;
+
+    private Zobrist() {
+    }
+
+    static {
+        long[] state = {0x9E3779B97F4A7C15L};
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = next(state);
+            }
+        }
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = next(state);
+        }
+        for (int i = 0; i < EN_PASSANT.length; i++) {
+            EN_PASSANT[i] = next(state);
+        }
+        BLACK_TO_MOVE = next(state);
+    }
+
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int file) {
+        return EN_PASSANT[file];
+    }
+
+    public static long side(ChessGame.TeamColor team) {
+        return team == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    // splitmix64, written out so the keys don't depend on the JDK's Random
+    private static long next(long[] state) {
+        long z = (state[0] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,40 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Static evaluation used at the leaves of the search: material and
+ * piece-square scores, blended between middlegame and endgame by how much
+ * material is left. ChessBoard keeps the totals up to date as moves are made
+ * and unmade, so this is a few field reads rather than a board scan.
+ */
+public final class Evaluation {
+    // indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN; used for move ordering
+    static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+
+    private Evaluation() {
+    }
+
+    /**
+     * @return centipawns in favor of the given team
+     */
+    public static int evaluate(ChessBoard board, ChessGame.TeamColor team) {
+        int score = evaluate(board);
+        return team == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * @return centipawns from white's point of view, e.g. for an evaluation bar
+     */
+    public static int evaluate(ChessBoard board) {
+        int phase = board.gamePhase();
+        return (board.middlegameScore() * phase + board.endgameScore() * (ChessBoard.MAX_PHASE - phase))
+                / ChessBoard.MAX_PHASE;
+    }
+
+    public static int pieceValue(ChessPiece piece) {
+        return PIECE_VALUES[piece.getPieceType().ordinal()];
+    }
+}
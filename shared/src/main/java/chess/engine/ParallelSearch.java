@@ -0,0 +1,143 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lazy SMP: several threads search the same root position at once, sharing one
+ * TranspositionTable. They don't split the tree explicitly; each thread's results
+ * land in the table and steer the others, and helper threads search staggered
+ * depths so they get ahead of the main thread instead of duplicating it.
+ * <p>
+ * The main search runs on the calling thread and its limits decide when
+ * everyone stops. The answer comes from whichever thread finished the deepest
+ * iteration.
+ * <p>
+ * Call close() when done to stop the helper threads.
+ */
+public class ParallelSearch implements AutoCloseable {
+    private final TranspositionTable table;
+    private final Search[] searches;
+    private final ExecutorService helpers;
+
+    /**
+     * Uses the chess.engine.threads system property, or one thread per core
+     */
+    public ParallelSearch() {
+        this(configuredThreads(), new TranspositionTable(TranspositionTable.configuredMegabytes()));
+    }
+
+    /**
+     * @param threads how many threads to search with, at least 1
+     * @param table   the table the threads share
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one search thread");
+        }
+        this.table = table;
+        this.searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+        }
+        this.helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public static int configuredThreads() {
+        return Integer.getInteger("chess.engine.threads", Runtime.getRuntime().availableProcessors());
+    }
+
+    public int threads() {
+        return searches.length;
+    }
+
+    /**
+     * Searches the game's position with every thread; the game isn't changed
+     *
+     * @return the deepest result, with nodes summed over all threads
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        table.newSearch();
+        long start = System.currentTimeMillis();
+
+        // helpers share the main search's deadline, but not its node count; otherwise
+        // they keep going until the main search tells them to stop
+        SearchLimits helperLimits = new SearchLimits(limits.maxDepth(), limits.timeMillis(), 0);
+        List<Future<SearchResult>> running = new ArrayList<>();
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            int index = i;
+            helper.clearStop();
+            running.add(helpers.submit(() -> helper.search(game, helperLimits, index, start)));
+        }
+
+        searches[0].clearStop();
+        SearchResult best = searches[0].search(game, limits, 0, start);
+        for (int i = 1; i < searches.length; i++) {
+            searches[i].stop();
+        }
+
+        long nodes = best.nodes();
+        for (Future<SearchResult> future : running) {
+            SearchResult result = await(future);
+            nodes += result.nodes();
+            if (result.depth() > best.depth() && result.bestMove() != null) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), nodes,
+                System.currentTimeMillis() - start);
+    }
+
+    private static SearchResult await(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for search threads", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Reports how nodes per second scale with the number of threads.
+     * Usage: {@code java chess.engine.ParallelSearch [maxThreads] [millis] [fen]}
+     */
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 3000;
+        String fen = args.length > 2 ? String.join(" ", List.of(args).subList(2, args.length)) : Fen.START;
+        ChessGame game = Fen.toGame(fen);
+
+        long baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            try (ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(64))) {
+                SearchResult result = search.search(game, SearchLimits.time(millis));
+                long nps = result.nodesPerSecond();
+                if (threads == 1) { baseline = nps; }
+                System.out.printf("threads %2d  depth %2d  nodes %,12d  nps %,11d  scaling %.2fx  move %s%n",
+                        threads, result.depth(), result.nodes(), nps, (double) nps / Math.max(baseline, 1),
+                        result.bestMove());
+            }
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package chess.engine;
+
+import chess.AttackTables;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.Zobrist;
+
+import java.util.Arrays;
+
+/**
+ * Finds a good move with negamax alpha-beta search and iterative deepening.
+ * Each iteration searches one ply deeper, so when the time or node budget runs
+ * out the best move from the last finished iteration is always ready.
+ * <p>
+ * Moves are tried best-first: captures by most valuable victim / least valuable
+ * attacker, then killer moves (quiet moves that caused a cutoff at the same ply),
+ * then by history score. At depth 0 a quiescence search keeps resolving captures
+ * so the evaluation isn't taken in the middle of an exchange.
+ * <p>
+ * Results are kept in a TranspositionTable: a stored score that was searched deep
+ * enough ends the node right away, and otherwise the stored best move is tried first.
+ * <p>
+ * A Search is not thread safe; use one per thread.
+ */
+public class Search {
+    public static final int MATE = 30000;
+    public static final int INFINITY = 32000;
+    static final int MAX_PLY = 128;
+
+    private static final int HASH_MOVE_SCORE = 4_000_000;
+    private static final int CAPTURE_SCORE = 1_000_000;
+    private static final int KILLER_SCORE = 900_000;
+
+    private final TranspositionTable table;
+    private ChessBoard board;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] moveScores = new int[MAX_PLY][256];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][][] history = new int[2][64][64]; // [color][from][to]
+
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+    private int rootBestMove;
+
+    public Search() {
+        this(new TranspositionTable(TranspositionTable.configuredMegabytes()));
+    }
+
+    /**
+     * @param table the transposition table to use, which may be shared with other searches
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int i = 0; i < MAX_PLY; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches the game's current position for the team whose turn it is.
+     * The game itself isn't changed; the search runs on a copy of the board.
+     *
+     * @param game   the position to search
+     * @param limits when to stop
+     * @return the best move found and its score
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        table.newSearch();
+        stopRequested = false;
+        return search(game, limits, 0, System.currentTimeMillis());
+    }
+
+    /**
+     * Asks a running search to finish as soon as possible; it still returns the
+     * best move from its last finished iteration. Safe to call from another thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Clears an earlier stop. Done before a search is handed to another thread
+     * rather than when it starts, so a stop that comes first isn't lost.
+     */
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * Runs one search thread. Helper threads (index above 0) skip alternate depths,
+     * so threads sharing a table spread across different depths instead of all
+     * repeating the same work. The time limit counts from start, so threads started
+     * a little late still share one deadline. A pending stop isn't cleared.
+     */
+    SearchResult search(ChessGame game, SearchLimits limits, int threadIndex, long start) {
+        board = new ChessBoard(game.getBoard());
+        ChessGame.TeamColor team = game.getTeamTurn();
+        nodes = 0;
+        stopped = false;
+        maxNodes = limits.maxNodes() > 0 ? limits.maxNodes() : Long.MAX_VALUE;
+        deadline = limits.timeMillis() > 0 ? start + limits.timeMillis() : Long.MAX_VALUE;
+        int maxDepth = limits.maxDepth() > 0 ? Math.min(limits.maxDepth(), MAX_PLY - 1) : MAX_PLY - 1;
+        clearHeuristics();
+
+        // fall back to any legal move in case the budget runs out before depth 1 finishes
+        MoveList rootMoves = moveLists[0];
+        rootMoves.clear();
+        MoveGenerator.legalMoves(board, team, -1L, rootMoves);
+        int bestMove = rootMoves.isEmpty() ? Move.NONE : rootMoves.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            if (threadIndex > 0 && depth > 1 && depth < maxDepth && (depth + threadIndex) % 2 == 0) {
+                continue;
+            }
+            rootBestMove = Move.NONE;
+            int score = negamax(team, depth, 0, -INFINITY, INFINITY);
+            if (stopped) {
+                break;
+            }
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            if (bestMove == Move.NONE || Math.abs(score) >= MATE - MAX_PLY) {
+                break; // no legal moves, or a forced mate was found
+            }
+        }
+
+        return new SearchResult(bestMove == Move.NONE ? null : Move.toChessMove(bestMove),
+                bestScore, completedDepth, nodes, System.currentTimeMillis() - start);
+    }
+
+    private int negamax(ChessGame.TeamColor team, int depth, int ply, int alpha, int beta) {
+        if (depth <= 0) {
+            return quiescence(team, ply, alpha, beta);
+        }
+        if (outOfBudget()) {
+            return 0;
+        }
+        nodes++;
+
+        long key = board.zobristKey() ^ Zobrist.side(team);
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.legalMoves(board, team, -1L, moves);
+        if (moves.isEmpty()) {
+            return inCheck(team) ? -MATE + ply : 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(board, team);
+        }
+
+        scoreMoves(moves, ply, team, hashMove);
+        ChessGame.TeamColor enemy = team.opponent();
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            long undo = board.makeMove(move);
+            int score = -negamax(enemy, depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove(undo);
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) { rootBestMove = move; }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                if (!Move.isCapture(move)) {
+                    rememberCutoff(move, ply, team, depth);
+                }
+                break;
+            }
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, bestMove, best, depth, bound, ply);
+        return best;
+    }
+
+    // Only captures and promotions, until the position is quiet. A side in check
+    // can't stand pat, since doing nothing isn't an option, so it searches every
+    // evasion instead, quiet ones included.
+    private int quiescence(ChessGame.TeamColor team, int ply, int alpha, int beta) {
+        if (outOfBudget()) {
+            return 0;
+        }
+        nodes++;
+
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(board, team);
+        }
+        boolean inCheck = inCheck(team);
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        if (inCheck) {
+            MoveGenerator.legalMoves(board, team, -1L, moves);
+            if (moves.isEmpty()) {
+                return -MATE + ply;
+            }
+        } else {
+            int standPat = Evaluation.evaluate(board, team);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+            MoveGenerator.captures(board, team, moves);
+        }
+        scoreMoves(moves, ply, team, Move.NONE);
+        ChessGame.TeamColor enemy = team.opponent();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            long undo = board.makeMove(move);
+            int score = -quiescence(enemy, ply + 1, -beta, -alpha);
+            board.unmakeMove(undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private void scoreMoves(MoveList moves, int ply, ChessGame.TeamColor team, int hashMove) {
+        int[] scores = moveScores[ply];
+        int color = team.ordinal();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            int to = Move.to(move);
+            if (hashMove != Move.NONE && Move.sameMove(move, hashMove)) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (Move.isCapture(move)) {
+                // most valuable victim, then least valuable attacker
+                int victim = Move.isEnPassant(move)
+                        ? Evaluation.PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()]
+                        : Evaluation.pieceValue(board.getPiece(to));
+                int attacker = Evaluation.pieceValue(board.getPiece(from));
+                scores[i] = CAPTURE_SCORE + victim * 10 - attacker / 10;
+            } else if (Move.sameMove(move, killers[ply][0])) {
+                scores[i] = KILLER_SCORE;
+            } else if (Move.sameMove(move, killers[ply][1])) {
+                scores[i] = KILLER_SCORE - 1;
+            } else {
+                scores[i] = history[color][from][to];
+            }
+            if (Move.promotion(move) == ChessPiece.PieceType.QUEEN) {
+                scores[i] += CAPTURE_SCORE;
+            }
+        }
+    }
+
+    // Selection sort one step at a time: cutoffs usually come early, so most
+    // of the list never needs sorting
+    private int pickNext(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    private void rememberCutoff(int move, int ply, ChessGame.TeamColor team, int depth) {
+        if (!Move.sameMove(move, killers[ply][0])) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] counts = history[team.ordinal()][Move.from(move)];
+        counts[Move.to(move)] += depth * depth;
+        if (counts[Move.to(move)] > KILLER_SCORE / 2) {
+            ageHistory();
+        }
+    }
+
+    private void ageHistory() {
+        for (int[][] color : history) {
+            for (int[] from : color) {
+                for (int to = 0; to < 64; to++) {
+                    from[to] /= 2;
+                }
+            }
+        }
+    }
+
+    private void clearHeuristics() {
+        for (int[] pair : killers) {
+            pair[0] = Move.NONE;
+            pair[1] = Move.NONE;
+        }
+        for (int[][] color : history) {
+            for (int[] from : color) {
+                Arrays.fill(from, 0);
+            }
+        }
+    }
+
+    // Checking the clock is slow, so only do it every 1024 nodes
+    private boolean outOfBudget() {
+        if (stopped) {
+            return true;
+        }
+        if (stopRequested || nodes >= maxNodes || ((nodes & 1023) == 0 && System.currentTimeMillis() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private boolean inCheck(ChessGame.TeamColor team) {
+        long king = board.pieces(team, ChessPiece.PieceType.KING);
+        return king != 0 && AttackTables.isAttacked(board, Long.numberOfTrailingZeros(king), team.opponent());
+    }
+
+}
@@ -0,0 +1,24 @@
+package chess.engine;
+
+/**
+ * How long a search may run. The search stops at whichever limit it hits first;
+ * 0 means no limit for that field, but at least one should be set.
+ *
+ * @param maxDepth   deepest iteration to start, in plies
+ * @param timeMillis wall-clock budget
+ * @param maxNodes   node budget, useful for reproducible results
+ */
+public record SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(0, timeMillis, 0);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, 0, maxNodes);
+    }
+}
@@ -0,0 +1,23 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * What a search found
+ *
+ * @param bestMove   the move to play, or null if the side to move has no legal moves
+ * @param score      centipawns from the side to move's point of view; mates are
+ *                   reported as +/- (Search.MATE - plies to mate)
+ * @param depth      the deepest iteration that finished
+ * @param nodes      positions visited, quiescence included
+ * @param timeMillis how long the search took
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long timeMillis) {
+
+    /**
+     * @return nodes searched per second
+     */
+    public long nodesPerSecond() {
+        return nodes * 1000 / Math.max(timeMillis, 1);
+    }
+}
@@ -0,0 +1,150 @@
+package chess.engine;
+
+import chess.Move;
+
+import java.util.Arrays;
+
+/**
+ * Remembers search results by position key so positions reached by different
+ * move orders are only searched once. Entries live in two primitive arrays
+ * rather than objects, so the table is a fixed size on the heap no matter how
+ * long the search runs.
+ * <p>
+ * Several search threads can share one table without locks: each slot stores
+ * the key XORed with its data, so a slot half-written by another thread simply
+ * fails the key check on probe and counts as a miss.
+ * <p>
+ * Replacement keeps the deeper result for the same search and always lets the
+ * current search overwrite entries left over from older ones.
+ */
+public class TranspositionTable {
+    public static final int UPPER = 1; // score is at most this (failed low)
+    public static final int LOWER = 2; // score is at least this (failed high)
+    public static final int EXACT = 3;
+
+    private static final int DEFAULT_MEGABYTES = 16;
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private volatile int age;
+
+    /**
+     * @param megabytes memory to use; rounded down to a power-of-two entry count
+     */
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max(1L, (long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        int size = (int) Long.highestOneBit(Math.min(entries, 1L << 30));
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Table size from the chess.engine.hashMb system property, 16 MB if unset
+     */
+    public static int configuredMegabytes() {
+        return Integer.getInteger("chess.engine.hashMb", DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches become
+     * the first to be replaced
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @return the packed entry, or 0 if the position isn't stored; read it with
+     * the static accessors
+     */
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        return (keys[index] ^ entry) == key ? entry : 0L;
+    }
+
+    /**
+     * Stores a search result
+     *
+     * @param key   the position key
+     * @param move  best move found, or Move.NONE
+     * @param score score from the side to move's point of view
+     * @param depth remaining depth the score was searched to
+     * @param bound UPPER, LOWER or EXACT
+     * @param ply   distance from the root, to store mate scores relative to this node
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int index = (int) key & mask;
+        long old = data[index];
+        boolean sameKey = (keys[index] ^ old) == key;
+        if (old != 0 && ageOf(old) == age && depth(old) > depth && !(sameKey && bound == EXACT)) {
+            return; // keep the deeper result from this search
+        }
+        if (sameKey && move == Move.NONE) {
+            move = move(old); // don't forget a good move just because this pass found none
+        }
+        long entry = (move & 0xFFFFL)
+                | (toStored(score, ply) & 0xFFFFL) << 16
+                | (long) Math.min(Math.max(depth, 0), 255) << 32
+                | (long) bound << 40
+                | (long) age << 42;
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    /**
+     * @return the stored score, with mate distances made relative to the given ply
+     */
+    public static int score(long entry, int ply) {
+        int score = (short) (entry >>> 16);
+        if (score >= Search.MATE - Search.MAX_PLY) { return score - ply; }
+        if (score <= -Search.MATE + Search.MAX_PLY) { return score + ply; }
+        return score;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 32 & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 40 & 3);
+    }
+
+    private static int ageOf(long entry) {
+        return (int) (entry >>> 42 & 0xFF);
+    }
+
+    // Mates are stored as distance from this node rather than from the root,
+    // since the same position can be reached at different plies
+    private static int toStored(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) { return score + ply; }
+        if (score <= -Search.MATE + Search.MAX_PLY) { return score - ply; }
+        return score;
+    }
+
+    /**
+     * @return how full the table is, in parts per thousand, sampled from the first entries
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, keys.length);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != 0 && ageOf(data[i]) == age) { used++; }
+        }
+        return used * 1000 / sample;
+    }
+}
@@ -0,0 +1,20 @@
+package chess.pgn;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game as it appears in a PGN file, before its moves are checked
+ *
+ * @param tags      the tag pairs, e.g. "White" to "Carlsen, Magnus", in file order
+ * @param moves     the SAN moves of the main line; comments, variations and
+ *                  move numbers are dropped
+ * @param moveLines the line of the file each move is on, parallel to moves
+ * @param result    "1-0", "0-1", "1/2-1/2" or "*", or null if the game was cut off
+ * @param firstLine the line the game starts on
+ * @param truncated whether the game had more than PgnReader.MAX_PLIES moves, in
+ *                  which case the rest were skipped
+ */
+public record PgnGame(Map<String, String> tags, List<String> moves, int[] moveLines, String result,
+                      int firstLine, boolean truncated) {
+}
@@ -0,0 +1,170 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Fen;
+import chess.InvalidMoveException;
+import chess.San;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Checks every game in a PGN collection by replaying its moves, spread over a
+ * pool of worker threads. The reading thread hands each game to a worker as
+ * soon as it's tokenized, and stops reading while too many games are waiting,
+ * so memory stays bounded however far the workers fall behind.
+ * <p>
+ * Usage: {@code java chess.pgn.PgnImporter <file.pgn> [threads]} prints each
+ * rejected game with the line of the bad move, then games per second.
+ */
+public final class PgnImporter {
+    private static final int QUEUED_PER_THREAD = 64;
+
+    private final int threads;
+
+    public PgnImporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public PgnImporter(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one worker thread");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * The outcome of replaying one game
+     *
+     * @param game      the game as read
+     * @param position  the final position if every move was legal, otherwise null
+     * @param error     why the game was rejected, or null if it wasn't
+     * @param errorLine the line of the file the problem is on, or 0 if accepted
+     */
+    public record Result(PgnGame game, ChessGame position, String error, int errorLine) {
+        public boolean accepted() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Totals for one import
+     */
+    public record Summary(long games, long accepted, long rejected, long millis) {
+        public long gamesPerSecond() {
+            return millis == 0 ? games * 1000 : games * 1000 / millis;
+        }
+    }
+
+    /**
+     * Reads and checks every game. The sink is called once per game from the worker
+     * threads, in no particular order, so it has to be thread safe. If the sink
+     * throws, the game is counted as rejected and the sink is offered the rejection.
+     */
+    public Summary run(PgnReader reader, Consumer<Result> sink) throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        int maxQueued = threads * QUEUED_PER_THREAD;
+        Semaphore queued = new Semaphore(maxQueued);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            for (PgnGame game = reader.next(); game != null; game = reader.next()) {
+                queued.acquire();
+                PgnGame toCheck = game;
+                workers.execute(() -> {
+                    try {
+                        (check(toCheck, sink).accepted() ? accepted : rejected).incrementAndGet();
+                    } finally {
+                        queued.release();
+                    }
+                });
+            }
+            queued.acquire(maxQueued); // wait for the workers to finish
+        } finally {
+            workers.shutdownNow();
+        }
+        return new Summary(accepted.get() + rejected.get(), accepted.get(), rejected.get(),
+                System.currentTimeMillis() - start);
+    }
+
+    // Validates and hands the result to the sink. The executor would swallow anything
+    // thrown here and the game would drop out of the totals, so an unexpected failure
+    // in either step rejects the game instead, with the exception as the error.
+    private static Result check(PgnGame game, Consumer<Result> sink) {
+        Result result;
+        try {
+            result = validate(game);
+        } catch (RuntimeException e) {
+            result = rejected(game, "Unexpected error: " + e, game.firstLine());
+        }
+        try {
+            sink.accept(result);
+            return result;
+        } catch (RuntimeException e) {
+            Result failed = rejected(game, "Unexpected error: " + e, game.firstLine());
+            try {
+                sink.accept(failed);
+            } catch (RuntimeException ignored) {
+                // the sink can't take it either; the game still counts as rejected
+            }
+            return failed;
+        }
+    }
+
+    /**
+     * Replays a game from its starting position (the FEN tag if there is one)
+     */
+    public static Result validate(PgnGame game) {
+        if (game.truncated()) {
+            return rejected(game, "More than " + PgnReader.MAX_PLIES + " moves", game.firstLine());
+        }
+        ChessGame chess;
+        String fen = game.tags().get("FEN");
+        try {
+            chess = fen == null ? new ChessGame() : Fen.toGame(fen);
+        } catch (IllegalArgumentException e) {
+            return rejected(game, e.getMessage(), game.firstLine());
+        }
+
+        for (int i = 0; i < game.moves().size(); i++) {
+            String san = game.moves().get(i);
+            String number = chess.getFullmoveNumber() + (chess.getTeamTurn() == ChessGame.TeamColor.WHITE ? ". " : "... ");
+            try {
+                ChessMove move = San.parse(chess, san);
+                chess.makeMove(move);
+            } catch (IllegalArgumentException | InvalidMoveException e) {
+                return rejected(game, number + e.getMessage(), game.moveLines()[i]);
+            }
+        }
+        return new Result(game, chess, null, 0);
+    }
+
+    private static Result rejected(PgnGame game, String error, int line) {
+        return new Result(game, null, error, line);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: PgnImporter <file.pgn> [threads]");
+            return;
+        }
+        PgnImporter importer = args.length > 1 ? new PgnImporter(Integer.parseInt(args[1])) : new PgnImporter();
+        try (PgnReader reader = PgnReader.open(Path.of(args[0]))) {
+            Summary summary = importer.run(reader, result -> {
+                if (!result.accepted()) {
+                    System.out.println("line " + result.errorLine() + ": " + result.error());
+                }
+            });
+            System.out.printf("%nGames: %d%nAccepted: %d%nRejected: %d%nTime: %.3f s%nGames/s: %d%n",
+                    summary.games(), summary.accepted(), summary.rejected(), summary.millis() / 1000.0,
+                    summary.gamesPerSecond());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package chess.pgn;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads games out of a PGN file one at a time.
+ * The file is memory-mapped a window at a time rather than read into the heap,
+ * and only the game being read is held in memory, so a multi-gigabyte collection
+ * needs no more memory than a single game. Games are capped at MAX_PLIES moves
+ * so a broken file can't grow one game without limit either.
+ * <p>
+ * The reader only splits the text into tags and moves; whether the moves are
+ * legal is PgnImporter's job. It is lenient about layout, the way PGN in the
+ * wild needs: comments, variations, NAGs, move numbers and escape lines are skipped.
+ */
+public final class PgnReader implements Closeable {
+    /** Moves kept per game; anything past this marks the game truncated */
+    public static final int MAX_PLIES = 2048;
+
+    private static final int MAX_TAGS = 128;
+    private static final long DEFAULT_WINDOW = 64L << 20;
+    private static final int EOF = -1;
+
+    private final FileChannel channel; // null when reading from memory
+    private final long size;
+    private final long window;
+    private long mappedTo;
+    private ByteBuffer buffer;
+
+    private int line = 1;
+    private boolean lineStart = true;
+    private int pushedBack = EOF;
+
+    private final StringBuilder token = new StringBuilder(16);
+    private final ByteArrayOutputStream tagValue = new ByteArrayOutputStream(64);
+
+    /**
+     * Opens a PGN file
+     */
+    public static PgnReader open(Path file) throws IOException {
+        return new PgnReader(FileChannel.open(file, StandardOpenOption.READ), DEFAULT_WINDOW);
+    }
+
+    /**
+     * Reads PGN that is already in memory, e.g. an upload
+     */
+    public static PgnReader of(byte[] pgn) {
+        return new PgnReader(ByteBuffer.wrap(pgn));
+    }
+
+    // window is how much of the file is mapped at once
+    PgnReader(FileChannel channel, long window) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.window = window;
+        this.buffer = ByteBuffer.allocate(0);
+    }
+
+    private PgnReader(ByteBuffer buffer) {
+        this.channel = null;
+        this.size = buffer.remaining();
+        this.window = size;
+        this.mappedTo = size;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads the next game
+     *
+     * @return the game, or null at the end of the file
+     */
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+        int[] lines = new int[64];
+        int firstLine = -1;
+        boolean truncated = false;
+
+        int c;
+        while ((c = read()) != EOF) {
+            boolean startedLine = lineStart;
+            lineStart = c == '\n';
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n') { continue; }
+            // comments, escapes and the like don't start a game; only a tag or move does
+
+            if (c == '%' && startedLine) {
+                skipLine();
+            } else if (c == '[') {
+                if (!moves.isEmpty()) {
+                    // tags before a result: the last game was cut off, this one starts here
+                    pushedBack = c;
+                    return game(tags, moves, lines, null, firstLine, truncated);
+                }
+                if (firstLine < 0) { firstLine = line; }
+                readTag(tags);
+            } else if (c == '{') {
+                skipComment();
+            } else if (c == ';') {
+                skipLine();
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == '$') {
+                readToken(c);
+            } else {
+                int tokenLine = line;
+                String text = readToken(c);
+                if (isResult(text)) {
+                    if (firstLine < 0) { continue; } // a stray result with no game before it
+                    return game(tags, moves, lines, text, firstLine, truncated);
+                }
+                String san = stripMoveNumber(text);
+                if (san.isEmpty()) { continue; }
+                if (firstLine < 0) { firstLine = tokenLine; }
+                if (moves.size() == MAX_PLIES) {
+                    truncated = true;
+                    continue;
+                }
+                if (moves.size() == lines.length) { lines = Arrays.copyOf(lines, lines.length * 2); }
+                lines[moves.size()] = tokenLine;
+                moves.add(san);
+            }
+        }
+        if (firstLine < 0) { return null; }
+        return game(tags, moves, lines, null, firstLine, truncated);
+    }
+
+    /**
+     * @return the line the reader has got to
+     */
+    public int line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) { channel.close(); }
+    }
+
+    private static PgnGame game(Map<String, String> tags, List<String> moves, int[] lines, String result,
+                                int firstLine, boolean truncated) {
+        return new PgnGame(tags, moves, Arrays.copyOf(lines, moves.size()), result, firstLine, truncated);
+    }
+
+    // [Name "value"], with \" and \\ escapes in the value
+    private void readTag(Map<String, String> tags) throws IOException {
+        token.setLength(0);
+        int c = read();
+        while (c == ' ') { c = read(); }
+        while (c != EOF && c != ' ' && c != '"' && c != ']' && c != '\n') {
+            token.append((char) c);
+            c = read();
+        }
+        while (c == ' ') { c = read(); }
+
+        tagValue.reset();
+        if (c == '"') {
+            for (c = read(); c != EOF && c != '"' && c != '\n'; c = read()) {
+                if (c == '\\') {
+                    int escaped = read();
+                    if (escaped == EOF || escaped == '\n') {
+                        c = escaped;
+                        break;
+                    }
+                    c = escaped;
+                }
+                tagValue.write(c);
+            }
+        }
+        while (c != EOF && c != ']' && c != '\n') { c = read(); }
+        if (c == '\n') { lineStart = true; }
+
+        if (token.length() > 0 && tags.size() < MAX_TAGS) {
+            tags.put(token.toString(), tagValue.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String readToken(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '{' || c == '}' || c == '('
+                    || c == ')' || c == ';' || c == '[' || c == ']') {
+                pushedBack = c;
+                break;
+            }
+            if (token.length() < 32) { token.append((char) c); } // nothing legitimate is longer
+        }
+        return token.toString();
+    }
+
+    // "12.", "12...", or "12.e4" with the move attached; a lone "!?" annotation is dropped too
+    private static String stripMoveNumber(String text) {
+        if (text.charAt(0) == '!' || text.charAt(0) == '?') { return ""; }
+        int i = 0;
+        while (i < text.length() && Character.isDigit(text.charAt(i))) { i++; }
+        if (i == 0 || i == text.length() || text.charAt(i) != '.') {
+            return i == text.length() ? "" : text; // a bare number is a move number without its dot
+        }
+        while (i < text.length() && text.charAt(i) == '.') { i++; }
+        return text.substring(i);
+    }
+
+    private static boolean isResult(String text) {
+        return text.equals("1-0") || text.equals("0-1") || text.equals("1/2-1/2") || text.equals("*");
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != EOF && c != '\n');
+        lineStart = true;
+    }
+
+    private void skipComment() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != EOF && c != '}');
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            if (c == EOF) { return; }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipComment();
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != EOF) {
+            c = pushedBack;
+            pushedBack = EOF;
+            return c;
+        }
+        if (!buffer.hasRemaining()) {
+            if (mappedTo >= size) { return EOF; }
+            long length = Math.min(window, size - mappedTo);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, mappedTo, length);
+            mappedTo += length;
+        }
+        c = buffer.get() & 0xFF;
+        if (c == '\n') { line++; }
+        return c;
+    }
+}
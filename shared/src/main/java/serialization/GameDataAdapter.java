@@ -0,0 +1,53 @@
+package serialization;
+
+import chess.ChessGame;
+import chess.ChessJson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.GameData;
+
+import java.io.IOException;
+
+// GameData by its record components, in declaration order
+class GameDataAdapter extends TypeAdapter<GameData> {
+
+    @Override
+    public void write(JsonWriter out, GameData data) throws IOException {
+        out.beginObject();
+        if (data.gameID() != null) { out.name("gameID").value(data.gameID()); }
+        if (data.whiteUsername() != null) { out.name("whiteUsername").value(data.whiteUsername()); }
+        if (data.blackUsername() != null) { out.name("blackUsername").value(data.blackUsername()); }
+        if (data.gameName() != null) { out.name("gameName").value(data.gameName()); }
+        if (data.game() != null) { ChessJson.GAME.write(out.name("game"), data.game()); }
+        out.endObject();
+    }
+
+    @Override
+    public GameData read(JsonReader in) throws IOException {
+        Integer gameID = null;
+        String white = null;
+        String black = null;
+        String name = null;
+        ChessGame game = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "gameID" -> gameID = in.nextInt();
+                case "whiteUsername" -> white = in.nextString();
+                case "blackUsername" -> black = in.nextString();
+                case "gameName" -> name = in.nextString();
+                case "game" -> game = ChessJson.GAME.read(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new GameData(gameID, white, black, name, game);
+    }
+}
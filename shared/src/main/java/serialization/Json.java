@@ -0,0 +1,23 @@
+package serialization;
+
+import chess.ChessJson;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import model.GameData;
+
+/**
+ * The one Gson the client and server share, with streaming adapters for the
+ * chess classes, GameData and the websocket messages and commands. The JSON is
+ * the same as plain reflective Gson writes. Gson instances are thread safe, so
+ * use this one rather than building a new one per request.
+ */
+public final class Json {
+    public static final Gson GSON = ChessJson.register(new GsonBuilder())
+            .registerTypeAdapter(GameData.class, new GameDataAdapter().nullSafe())
+            .registerTypeAdapterFactory(ServerMessageAdapter.FACTORY)
+            .registerTypeAdapterFactory(UserGameCommandAdapter.FACTORY)
+            .create();
+
+    private Json() {
+    }
+}
@@ -0,0 +1,110 @@
+package serialization;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.GameData;
+import websocket.messages.ErrorMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.io.IOException;
+
+/*
+ * Every ServerMessage class. As with reflection, a subclass's own fields come
+ * before serverMessageType. Reading as ServerMessage picks the subclass from
+ * serverMessageType; reading as a subclass always gives that subclass.
+ */
+class ServerMessageAdapter extends TypeAdapter<ServerMessage> {
+    private static final GameDataAdapter GAME_DATA = new GameDataAdapter();
+    private static final ServerMessage.ServerMessageType[] TYPES = ServerMessage.ServerMessageType.values();
+
+    private final Class<?> target;
+
+    ServerMessageAdapter(Class<?> target) {
+        this.target = target;
+    }
+
+    static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (!ServerMessage.class.isAssignableFrom(type.getRawType())) {
+                return null;
+            }
+            return (TypeAdapter<T>) new ServerMessageAdapter(type.getRawType()).nullSafe();
+        }
+    };
+
+    @Override
+    public void write(JsonWriter out, ServerMessage message) throws IOException {
+        out.beginObject();
+        if (message instanceof LoadGameMessage load) {
+            if (load.getGame() != null) { GAME_DATA.write(out.name("game"), load.getGame()); }
+            if (load.getEvaluation() != null) { out.name("evaluation").value(load.getEvaluation()); }
+        } else if (message instanceof ErrorMessage error) {
+            if (error.getErrorMessage() != null) { out.name("errorMessage").value(error.getErrorMessage()); }
+        } else if (message instanceof NotificationMessage note) {
+            if (note.getMessage() != null) { out.name("message").value(note.getMessage()); }
+        }
+        if (message.getServerMessageType() != null) {
+            out.name("serverMessageType").value(message.getServerMessageType().name());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public ServerMessage read(JsonReader in) throws IOException {
+        ServerMessage.ServerMessageType type = null;
+        GameData game = null;
+        Integer evaluation = null;
+        String text = null;
+        String errorText = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "serverMessageType" -> type = enumValue(in.nextString());
+                case "game" -> game = GAME_DATA.read(in);
+                case "evaluation" -> evaluation = in.nextInt();
+                case "message" -> text = in.nextString();
+                case "errorMessage" -> errorText = in.nextString();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        Class<?> kind = target;
+        if (kind == ServerMessage.class && type != null) {
+            kind = switch (type) {
+                case LOAD_GAME -> LoadGameMessage.class;
+                case ERROR -> ErrorMessage.class;
+                case NOTIFICATION -> NotificationMessage.class;
+            };
+        }
+        if (kind == LoadGameMessage.class) {
+            return new LoadGameMessage(game, evaluation);
+        } else if (kind == ErrorMessage.class) {
+            return new ErrorMessage(errorText);
+        } else if (kind == NotificationMessage.class) {
+            return new NotificationMessage(text);
+        }
+        return new ServerMessage(type);
+    }
+
+    private static ServerMessage.ServerMessageType enumValue(String name) {
+        for (ServerMessage.ServerMessageType type : TYPES) {
+            if (type.name().equals(name)) { return type; }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,88 @@
+package serialization;
+
+import chess.ChessJson;
+import chess.ChessMove;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+
+import java.io.IOException;
+
+/*
+ * UserGameCommand and MakeMoveCommand. Reading as UserGameCommand gives a
+ * MakeMoveCommand for MAKE_MOVE, so the server can parse a command once.
+ */
+class UserGameCommandAdapter extends TypeAdapter<UserGameCommand> {
+    private static final UserGameCommand.CommandType[] TYPES = UserGameCommand.CommandType.values();
+
+    private final Class<?> target;
+
+    UserGameCommandAdapter(Class<?> target) {
+        this.target = target;
+    }
+
+    static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (!UserGameCommand.class.isAssignableFrom(type.getRawType())) {
+                return null;
+            }
+            return (TypeAdapter<T>) new UserGameCommandAdapter(type.getRawType()).nullSafe();
+        }
+    };
+
+    @Override
+    public void write(JsonWriter out, UserGameCommand command) throws IOException {
+        out.beginObject();
+        if (command instanceof MakeMoveCommand makeMove && makeMove.getMove() != null) {
+            ChessJson.MOVE.write(out.name("move"), makeMove.getMove());
+        }
+        if (command.getCommandType() != null) { out.name("commandType").value(command.getCommandType().name()); }
+        if (command.getAuthToken() != null) { out.name("authToken").value(command.getAuthToken()); }
+        if (command.getGameID() != null) { out.name("gameID").value(command.getGameID()); }
+        out.endObject();
+    }
+
+    @Override
+    public UserGameCommand read(JsonReader in) throws IOException {
+        UserGameCommand.CommandType type = null;
+        String authToken = null;
+        Integer gameID = null;
+        ChessMove move = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "commandType" -> type = enumValue(in.nextString());
+                case "authToken" -> authToken = in.nextString();
+                case "gameID" -> gameID = in.nextInt();
+                case "move" -> move = ChessJson.MOVE.read(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (target == MakeMoveCommand.class || (target == UserGameCommand.class && type == UserGameCommand.CommandType.MAKE_MOVE)) {
+            return new MakeMoveCommand(authToken, gameID, move);
+        }
+        return new UserGameCommand(type, authToken, gameID);
+    }
+
+    private static UserGameCommand.CommandType enumValue(String name) {
+        for (UserGameCommand.CommandType type : TYPES) {
+            if (type.name().equals(name)) { return type; }
+        }
+        return null;
+    }
+}
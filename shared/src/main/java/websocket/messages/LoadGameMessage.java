@@ -4,13 +4,27 @@ import model.GameData;
 
 public class LoadGameMessage extends ServerMessage {
     private final GameData game; //Either ChessGame or GameData...
+    private final Integer evaluation; // centipawns for white, only sent to observers
 
     public LoadGameMessage(GameData game) {
+        this(game, null);
+    }
+
+    public LoadGameMessage(GameData game, Integer evaluation) {
         super(ServerMessageType.LOAD_GAME);
         this.game = game;
+        this.evaluation = evaluation;
     }
 
     public GameData getGame() {
         return game;
     }
+
+    /**
+     * @return the server's quick evaluation in centipawns from white's point
+     * of view, or null when it wasn't sent (players don't get one)
+     */
+    public Integer getEvaluation() {
+        return evaluation;
+    }
 }
@@ -0,0 +1,114 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DrawTests {
+
+    @Test
+    @DisplayName("Draw - Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 2; i++) {
+            assertNull(game.evaluateStatus().drawReason());
+            shuffleKnights(game);
+        }
+        assertTrue(game.isThreefoldRepetition());
+        assertEquals(GameStatus.DrawReason.THREEFOLD_REPETITION, game.evaluateStatus().drawReason());
+        assertTrue(game.evaluateStatus().isDraw());
+    }
+
+    @Test
+    @DisplayName("Draw - Gson Leaves Out The History")
+    public void gsonLeavesOutHistory() throws InvalidMoveException {
+        // clients only need the position and counters; the server rebuilds the history from its move log
+        Gson gson = new Gson();
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        String json = gson.toJson(game);
+        assertFalse(json.contains("positionHistory"));
+        game = gson.fromJson(json, ChessGame.class);
+        assertEquals(4, game.getHalfmoveClock());
+        shuffleKnights(game);
+        assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Draw - Pawn Move Resets History And Clock")
+    public void pawnMoveResets() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        assertEquals(4, game.getHalfmoveClock());
+        game.makeMove(move("e2", "e4"));
+        game.makeMove(move("e7", "e5"));
+        assertEquals(0, game.getHalfmoveClock());
+        shuffleKnights(game);
+        assertFalse(game.isThreefoldRepetition(), "Positions before the pawn move can't repeat");
+    }
+
+    @Test
+    @DisplayName("Draw - Long History Keeps Growing")
+    public void longHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 40; i++) {
+            shuffleKnights(game);
+        }
+        assertEquals(160, game.getHalfmoveClock());
+        assertEquals(161, game.savedHistory().length, "Every position since the last pawn move is kept");
+        assertTrue(game.isThreefoldRepetition());
+
+        game.makeMove(move("e2", "e4"));
+        assertEquals(1, game.savedHistory().length);
+        assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Draw - Fifty Move Rule")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = Fen.toGame("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        game.setHalfmoveClock(ChessGame.FIFTY_MOVE_LIMIT - 1);
+        assertNull(game.drawReason());
+        game.makeMove(move("a1", "a2"));
+        assertEquals(GameStatus.DrawReason.FIFTY_MOVE_RULE, game.drawReason());
+    }
+
+    @Test
+    @DisplayName("Draw - Insufficient Material")
+    public void insufficientMaterial() {
+        assertTrue(Fen.toGame("4k3/8/8/8/8/8/8/4K3 w - - 0 1").isInsufficientMaterial());
+        assertTrue(Fen.toGame("4k3/8/8/8/8/8/8/4KN2 w - - 0 1").isInsufficientMaterial());
+        assertTrue(Fen.toGame("4kb2/8/8/8/8/8/8/2B1K3 w - - 0 1").isInsufficientMaterial(),
+                "Bishops on the same color can't mate");
+        assertFalse(Fen.toGame("4k1b1/8/8/8/8/8/8/2B1K3 w - - 0 1").isInsufficientMaterial(),
+                "Bishops on opposite colors can");
+        assertFalse(Fen.toGame("4k3/8/8/8/8/8/8/3NKN2 w - - 0 1").isInsufficientMaterial());
+        assertFalse(Fen.toGame("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1").isInsufficientMaterial());
+        assertFalse(new ChessGame().isInsufficientMaterial());
+    }
+
+    @Test
+    @DisplayName("Draw - Checkmate Beats The Fifty Move Rule")
+    public void checkmateWins() throws InvalidMoveException {
+        ChessGame game = Fen.toGame("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        game.setHalfmoveClock(ChessGame.FIFTY_MOVE_LIMIT - 1);
+        game.makeMove(move("a1", "a8"));
+        GameStatus status = game.evaluateStatus();
+        assertTrue(status.checkmate());
+        assertNull(status.drawReason());
+    }
+
+    // Knights out and back for both sides: four halfmoves back to the same position
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(move("g1", "f3"));
+        game.makeMove(move("g8", "f6"));
+        game.makeMove(move("f3", "g1"));
+        game.makeMove(move("f6", "g8"));
+    }
+
+    private static ChessMove move(String from, String to) {
+        return new ChessMove(ChessPosition.fromAlgebraic(from), ChessPosition.fromAlgebraic(to), null);
+    }
+}
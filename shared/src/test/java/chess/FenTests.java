@@ -0,0 +1,85 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Fen - Starting Position")
+    public void startingPosition() {
+        ChessGame game = Fen.toGame(Fen.START);
+        assertEquals(new ChessGame(), game);
+        assertEquals(ChessBoard.ALL_CASTLING, game.getBoard().castlingRights());
+        assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+        assertEquals(Fen.START, Fen.toFen(new ChessGame()));
+    }
+
+    @Test
+    @DisplayName("Fen - Round Trip Keeps Every Field")
+    public void roundTrip() {
+        String[] positions = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+                "8/8/8/8/k2Pp2Q/8/8/3K4 b - d3 0 40",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 37 112"
+        };
+        for (String fen : positions) {
+            assertEquals(fen, Fen.toFen(Fen.toGame(fen)));
+        }
+    }
+
+    @Test
+    @DisplayName("Fen - Fields Are Read")
+    public void fieldsAreRead() {
+        ChessGame game = Fen.toGame("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w Kq f6 4 3");
+        assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        assertEquals(ChessBoard.WHITE_KINGSIDE | ChessBoard.BLACK_QUEENSIDE, game.getBoard().castlingRights());
+        assertEquals(ChessBoard.square(ChessPosition.fromAlgebraic("f6")), game.getBoard().enPassantSquare());
+        assertEquals(4, game.getHalfmoveClock());
+        assertEquals(3, game.getFullmoveNumber());
+        assertEquals(31, game.legalMoves().size(), "e5xf6 en passant should be among the moves");
+    }
+
+    @Test
+    @DisplayName("Fen - Matches Played Moves")
+    public void matchesPlayedMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move("e2", "e4"));
+        game.makeMove(move("g8", "f6"));
+        game.makeMove(move("e4", "e5"));
+        game.makeMove(move("d7", "d5"));
+        assertEquals("rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3", Fen.toFen(game));
+        assertEquals(game.getZobristKey(), Fen.toGame(Fen.toFen(game)).getZobristKey());
+
+        game.makeMove(move("e1", "e2"));
+        assertEquals("rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPPKPPP/RNBQ1BNR b kq - 1 3", Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Fen - Short Forms")
+    public void shortForms() {
+        ChessGame game = Fen.toGame("4k3/8/8/8/8/8/8/4K2R b");
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals(0, game.getBoard().castlingRights());
+        assertEquals("4k3/8/8/8/8/8/8/4K2R b - - 0 1", Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Fen - Invalid Fields")
+    public void invalidFields() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.toGame("4k3/8/8/8/8/8/8/4K3 w KX - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.toGame("4k3/8/8/8/8/8/8/4K3 w - e4 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.toGame("4k3/8/8/8/8/8/8/4K3 w - - x 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.toGame("4k3/8/8/8/8/8/8/4K3 w - - 0 0"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.toGame("4k3/8/8/8/8/8/8/4K3 w - - 0 1 extra"));
+    }
+
+    private static ChessMove move(String from, String to) {
+        return new ChessMove(ChessPosition.fromAlgebraic(from), ChessPosition.fromAlgebraic(to), null);
+    }
+}
@@ -0,0 +1,108 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameCodecTests {
+
+    @Test
+    @DisplayName("GameCodec - Starting Position Is Small")
+    public void startingPosition() {
+        byte[] bytes = GameCodec.encode(new ChessGame());
+        assertEquals(39, bytes.length);
+        assertEquals(GameCodec.VERSION, bytes[0]);
+        ChessGame game = GameCodec.decode(bytes);
+        assertEquals(new ChessGame(), game);
+        assertEquals(Fen.START, Fen.toFen(game));
+        assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("GameCodec - Round Trip Keeps Every Field")
+    public void roundTrip() {
+        String[] positions = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+                "8/8/8/8/k2Pp2Q/8/8/3K4 b - d3 0 40",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 37 112"
+        };
+        for (String fen : positions) {
+            ChessGame game = GameCodec.decode(GameCodec.encode(Fen.toGame(fen)));
+            assertEquals(fen, Fen.toFen(game));
+            assertEquals(Fen.toGame(fen).getZobristKey(), game.getZobristKey());
+        }
+
+        ChessGame over = new ChessGame();
+        over.setGameOver(true);
+        assertTrue(GameCodec.decode(GameCodec.encode(over)).isGameOver());
+    }
+
+    @Test
+    @DisplayName("GameCodec - Matches Played Games")
+    public void playedGames() throws InvalidMoveException {
+        Random random = new Random(21);
+        for (int g = 0; g < 30; g++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 150; ply++) {
+                List<ChessMove> moves = new ArrayList<>(game.legalMoves());
+                if (moves.isEmpty()) { break; }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+
+                ChessGame copy = GameCodec.decode(GameCodec.encode(game));
+                assertEquals(Fen.toFen(game), Fen.toFen(copy));
+                assertEquals(game.getZobristKey(), copy.getZobristKey());
+                assertEquals(game.drawReason(), copy.drawReason());
+                assertEquals(new ArrayList<>(game.legalMoves()), new ArrayList<>(copy.legalMoves()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("GameCodec - Repetition History Isn't Stored")
+    public void repetitionHistoryNotStored() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        byte[] bytes = GameCodec.encode(game);
+        assertEquals(39, bytes.length, "The size doesn't depend on how long the game is");
+        game = GameCodec.decode(bytes);
+        assertEquals(4, game.getHalfmoveClock(), "The clock says how many plies to replay");
+        shuffleKnights(game);
+        assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("GameCodec - Bad Input")
+    public void badInput() {
+        byte[] bytes = GameCodec.encode(new ChessGame());
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(Arrays.copyOf(bytes, 20)));
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(Arrays.copyOf(bytes, bytes.length + 1)));
+
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[0] = (byte) (GameCodec.VERSION + 1);
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(wrongVersion));
+
+        byte[] badPiece = bytes.clone();
+        badPiece[20] = (byte) 0xDD;
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badPiece));
+    }
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(move("g1", "f3"));
+        game.makeMove(move("g8", "f6"));
+        game.makeMove(move("f3", "g1"));
+        game.makeMove(move("f6", "g8"));
+    }
+
+    private static ChessMove move(String from, String to) {
+        return new ChessMove(ChessPosition.fromAlgebraic(from), ChessPosition.fromAlgebraic(to), null);
+    }
+}
@@ -0,0 +1,91 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStatusTests {
+
+    @Test
+    @DisplayName("GameStatus - Checkmate")
+    public void checkmate() {
+        GameStatus status = assertMatchesSeparateChecks("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        assertTrue(status.checkmate());
+        assertTrue(status.inCheck());
+        assertEquals(0, status.legalMoveCount());
+        assertFalse(status.isDraw());
+        assertTrue(status.isGameOver());
+    }
+
+    @Test
+    @DisplayName("GameStatus - Stalemate")
+    public void stalemate() {
+        GameStatus status = assertMatchesSeparateChecks("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        assertTrue(status.stalemate());
+        assertFalse(status.inCheck());
+        assertEquals(ChessGame.TeamColor.BLACK, status.teamToMove());
+        assertTrue(status.isDraw());
+        assertNull(status.drawReason(), "Stalemate isn't one of the other draw rules");
+    }
+
+    @Test
+    @DisplayName("GameStatus - Check With Legal Replies")
+    public void checkWithReplies() {
+        GameStatus status = assertMatchesSeparateChecks("rnbqkbnr/ppp2ppp/3p4/1B2p3/4P3/8/PPPP1PPP/RNBQK1NR b KQkq - 1 3");
+        assertTrue(status.inCheck());
+        assertFalse(status.checkmate());
+        assertFalse(status.stalemate());
+        assertTrue(status.legalMoveCount() > 0);
+        assertFalse(status.isGameOver());
+    }
+
+    @Test
+    @DisplayName("GameStatus - Drawn Positions")
+    public void drawnPositions() {
+        GameStatus material = assertMatchesSeparateChecks("8/8/4k3/8/8/3NK3/8/8 w - - 0 1");
+        assertEquals(GameStatus.DrawReason.INSUFFICIENT_MATERIAL, material.drawReason());
+        assertFalse(material.stalemate());
+        assertTrue(material.isGameOver());
+
+        GameStatus fifty = assertMatchesSeparateChecks("8/8/4k3/8/8/3RK3/8/8 w - - 100 80");
+        assertEquals(GameStatus.DrawReason.FIFTY_MOVE_RULE, fifty.drawReason());
+        assertTrue(fifty.isDraw());
+    }
+
+    @Test
+    @DisplayName("GameStatus - Matches Separate Checks In Played Games")
+    public void playedGames() throws InvalidMoveException {
+        Random random = new Random(5);
+        for (int g = 0; g < 30; g++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 200; ply++) {
+                assertMatchesSeparateChecks(game);
+                List<ChessMove> moves = new ArrayList<>(game.legalMoves());
+                if (moves.isEmpty()) { break; }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    private static GameStatus assertMatchesSeparateChecks(String fen) {
+        return assertMatchesSeparateChecks(Fen.toGame(fen));
+    }
+
+    private static GameStatus assertMatchesSeparateChecks(ChessGame game) {
+        ChessGame.TeamColor team = game.getTeamTurn();
+        GameStatus status = game.evaluateStatus();
+        String fen = Fen.toFen(game);
+        assertEquals(team, status.teamToMove(), fen);
+        assertEquals(game.isInCheck(team), status.inCheck(), fen);
+        assertEquals(game.isInCheckmate(team), status.checkmate(), fen);
+        assertEquals(game.isInStalemate(team), status.stalemate(), fen);
+        assertEquals(game.legalMoves().size(), status.legalMoveCount(), fen);
+        assertEquals(status.checkmate() ? null : game.drawReason(), status.drawReason(), fen);
+        return status;
+    }
+}
@@ -0,0 +1,158 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reference node counts from the chessprogramming wiki perft results.
+ * Kiwipete and positions 4 and 5 are full of castles, en passant captures
+ * and promotions, so they catch most special-move bugs.
+ */
+public class PerftTests {
+
+    @Test
+    @DisplayName("Perft - Starting Position")
+    public void startingPosition() {
+        ChessGame game = Fen.toGame(Fen.START);
+        assertEquals(20, Perft.perft(game, 1));
+        assertEquals(400, Perft.perft(game, 2));
+        assertEquals(8902, Perft.perft(game, 3));
+        assertEquals(197281, Perft.perft(game, 4));
+        assertEquals(4865609, Perft.perft(game, 5));
+    }
+
+    @Test
+    @DisplayName("Perft - Kiwipete")
+    public void kiwipete() {
+        ChessGame game = Fen.toGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        assertEquals(48, Perft.perft(game, 1));
+        assertEquals(2039, Perft.perft(game, 2));
+        assertEquals(97862, Perft.perft(game, 3));
+        assertEquals(4085603, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Perft - Position 4")
+    public void position4() {
+        ChessGame game = Fen.toGame("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        assertEquals(6, Perft.perft(game, 1));
+        assertEquals(264, Perft.perft(game, 2));
+        assertEquals(9467, Perft.perft(game, 3));
+        assertEquals(422333, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Perft - Position 5")
+    public void position5() {
+        ChessGame game = Fen.toGame("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8");
+        assertEquals(44, Perft.perft(game, 1));
+        assertEquals(1486, Perft.perft(game, 2));
+        assertEquals(62379, Perft.perft(game, 3));
+        assertEquals(2103487, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Perft - Rook Endgame")
+    public void rookEndgame() {
+        ChessGame game = Fen.toGame("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+        assertEquals(14, Perft.perft(game, 1));
+        assertEquals(191, Perft.perft(game, 2));
+        assertEquals(2812, Perft.perft(game, 3));
+        assertEquals(43238, Perft.perft(game, 4));
+        assertEquals(674624, Perft.perft(game, 5));
+    }
+
+    @Test
+    @DisplayName("Perft - Middlegame")
+    public void middlegame() {
+        ChessGame game = Fen.toGame("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        assertEquals(46, Perft.perft(game, 1));
+        assertEquals(2079, Perft.perft(game, 2));
+        assertEquals(89890, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Perft - Promotions")
+    public void promotions() {
+        ChessGame game = Fen.toGame("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1");
+        assertEquals(24, Perft.perft(game, 1));
+        assertEquals(496, Perft.perft(game, 2));
+        assertEquals(9483, Perft.perft(game, 3));
+        assertEquals(182838, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Perft - Divide Matches Total")
+    public void divideMatchesTotal() {
+        ChessGame game = Fen.toGame(Fen.START);
+        var divide = Perft.divide(game, 3);
+        assertEquals(20, divide.size());
+        assertEquals(600, (long) divide.get("e2e4"));
+        assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(new ChessGame(), game, "Perft should leave the board as it found it");
+    }
+
+    @Test
+    @DisplayName("Perft - Parallel Matches Serial")
+    public void parallelMatchesSerial() {
+        ChessGame game = Fen.toGame("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        assertEquals(46, Perft.parallelPerft(game, 1, pool));
+        assertEquals(2079, Perft.parallelPerft(game, 2, pool));
+        assertEquals(89890, Perft.parallelPerft(game, 3, pool));
+
+        var divide = TreeWalk.divide(Fen.toGame(Fen.START), pool, (board, team) -> Perft.perft(board, team, 2));
+        assertEquals(Perft.divide(Fen.toGame(Fen.START), 3), divide);
+        pool.shutdown();
+        assertEquals(Fen.toGame("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"), game,
+                "The walk should work on copies of the board");
+    }
+
+    @Test
+    @DisplayName("Perft - Captures Match Filtered Legal Moves")
+    public void capturesMatchLegalMoves() throws InvalidMoveException {
+        String[] positions = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                "8/8/8/8/k2Pp2Q/8/8/3K4 b - d3 0 40",
+                "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1"
+        };
+        Random random = new Random(11);
+        for (String fen : positions) {
+            ChessGame game = Fen.toGame(fen);
+            for (int ply = 0; ply < 40; ply++) {
+                MoveList all = new MoveList();
+                MoveGenerator.legalMoves(game.getBoard(), game.getTeamTurn(), -1L, all);
+                if (all.isEmpty()) { break; }
+                Set<Integer> expected = new HashSet<>();
+                for (int i = 0; i < all.size(); i++) {
+                    int move = all.get(i);
+                    if (Move.isCapture(move) || Move.promotion(move) != null) { expected.add(move); }
+                }
+                MoveList captures = new MoveList();
+                MoveGenerator.captures(game.getBoard(), game.getTeamTurn(), captures);
+                Set<Integer> actual = new HashSet<>();
+                for (int i = 0; i < captures.size(); i++) { actual.add(captures.get(i)); }
+                assertEquals(expected, actual, Fen.toFen(game));
+                assertEquals(expected.size(), captures.size(), "No duplicates");
+
+                game.makeMove(Move.toChessMove(all.get(random.nextInt(all.size()))));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Fen - Invalid")
+    public void invalidFen() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.toGame("rnbqkbnr/pppppppp/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.toGame("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x"));
+    }
+}
@@ -0,0 +1,92 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SanTests {
+
+    @Test
+    @DisplayName("SAN - Pawn Moves, Captures And Promotions")
+    public void pawnMoves() {
+        ChessGame game = Fen.toGame("r3k3/1P6/8/3pP3/8/8/8/4K3 w - d6 0 1");
+        assertEquals("e6", San.toSan(game, move("e5", "e6", null)));
+        assertEquals("exd6", San.toSan(game, move("e5", "d6", null)));
+        assertEquals("b8=Q+", San.toSan(game, move("b7", "b8", ChessPiece.PieceType.QUEEN)));
+        assertEquals("bxa8=N", San.toSan(game, move("b7", "a8", ChessPiece.PieceType.KNIGHT)));
+    }
+
+    @Test
+    @DisplayName("SAN - Disambiguation")
+    public void disambiguation() {
+        ChessGame game = Fen.toGame("2k5/8/8/R7/4Q2Q/8/8/R3K1NQ w - - 0 1");
+        assertEquals("R1a3", San.toSan(game, move("a1", "a3", null)));
+        assertEquals("R5a3", San.toSan(game, move("a5", "a3", null)));
+        assertEquals("Ne2", San.toSan(game, move("g1", "e2", null)));
+        assertEquals("Qeg2", San.toSan(game, move("e4", "g2", null)));
+        assertEquals("Qhg2", San.toSan(game, move("h1", "g2", null)));
+        assertEquals("Qg3", San.toSan(game, move("h4", "g3", null)));
+        assertEquals(move("h1", "g2", null), San.parse(game, "Qhg2"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Qg2"), "Two queens can reach g2");
+
+        ChessGame queens = Fen.toGame("2k5/8/8/8/7Q/8/K7/4Q2Q w - - 0 1");
+        assertEquals("Qh1e4", San.toSan(queens, move("h1", "e4", null)), "Shares a file and a rank with the others");
+        assertEquals("Q4e4", San.toSan(queens, move("h4", "e4", null)));
+        assertEquals("Qee4", San.toSan(queens, move("e1", "e4", null)));
+        assertEquals(move("h1", "e4", null), San.parse(queens, "Qh1e4"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(queens, "Qhe4"));
+    }
+
+    @Test
+    @DisplayName("SAN - Castles, Check And Mate")
+    public void castlesAndChecks() {
+        ChessGame game = Fen.toGame("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        assertEquals("O-O", San.toSan(game, move("e1", "g1", null)));
+        assertEquals("O-O-O", San.toSan(game, move("e1", "c1", null)));
+        assertEquals("Rxa8+", San.toSan(game, move("a1", "a8", null)));
+        assertEquals(move("e1", "c1", null), San.parse(game, "O-O-O"));
+        assertEquals(move("e1", "g1", null), San.parse(game, "0-0"));
+
+        ChessGame mate = Fen.toGame("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        assertEquals("Ra8#", San.toSan(mate, move("a1", "a8", null)));
+        assertEquals(Fen.toFen(Fen.toGame("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1")), Fen.toFen(mate),
+                "Naming a move shouldn't change the game");
+    }
+
+    @Test
+    @DisplayName("SAN - Every Move Parses Back")
+    public void roundTrip() throws InvalidMoveException {
+        Random random = new Random(11);
+        for (int g = 0; g < 30; g++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 120; ply++) {
+                List<ChessMove> moves = new ArrayList<>(game.legalMoves());
+                if (moves.isEmpty()) { break; }
+                for (ChessMove move : moves) {
+                    assertEquals(move, San.parse(game, San.toSan(game, move)));
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("SAN - Bad Input")
+    public void badInput() {
+        ChessGame game = new ChessGame();
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "e5"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Zf3"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "O-O"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "x"));
+        assertThrows(IllegalArgumentException.class, () -> San.toSan(game, move("e2", "e5", null)));
+    }
+
+    private static ChessMove move(String from, String to, ChessPiece.PieceType promotion) {
+        return new ChessMove(ChessPosition.fromAlgebraic(from), ChessPosition.fromAlgebraic(to), promotion);
+    }
+}
@@ -0,0 +1,103 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The board updates its Zobrist key piece by piece as moves are made and taken
+ * back. Repetition detection and the transposition table both assume that key
+ * is the same as one worked out from scratch, so these check it directly.
+ */
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Zobrist - Special Moves Keep The Key In Step")
+    public void specialMoves() {
+        // castling both ways, a rook captured on its home square, en passant and
+        // promotions with and without a capture, from Kiwipete and friends
+        assertMovesKeepKey("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "e1g1", "e1c1", "e5f7", "f3f6", "d5e6", "a1b1", "h1f1");
+        assertMovesKeepKey("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b KQkq - 0 1",
+                "e8g8", "e8c8", "h3g2", "a8b8", "h8h4", "b4c3");
+        assertMovesKeepKey("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+                "e5f6", "e5e6", "d1h5");
+        assertMovesKeepKey("8/8/8/8/k2Pp2Q/8/8/3K4 b - d3 0 40", "e4d3", "e4e3");
+        assertMovesKeepKey("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N w - - 0 1", "b7b8q", "b7a8n", "b7c8r", "c7c8b");
+        assertMovesKeepKey("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "a1a8", "h1h8", "e1e2");
+    }
+
+    @Test
+    @DisplayName("Zobrist - Random Games Make And Unmake")
+    public void randomGames() {
+        Random random = new Random(6);
+        String[] starts = {
+                Fen.START,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1"
+        };
+        for (String fen : starts) {
+            for (int g = 0; g < 20; g++) {
+                ChessGame game = Fen.toGame(fen);
+                ChessBoard board = game.getBoard();
+                ChessGame.TeamColor team = game.getTeamTurn();
+                long[] undo = new long[120];
+                long[] keys = new long[120];
+                int ply = 0;
+                for (; ply < undo.length; ply++) {
+                    MoveList moves = new MoveList();
+                    MoveGenerator.legalMoves(board, team, -1L, moves);
+                    if (moves.isEmpty()) { break; }
+                    keys[ply] = board.zobristKey();
+                    undo[ply] = board.makeMove(moves.get(random.nextInt(moves.size())));
+                    assertEquals(recompute(board), board.zobristKey(), "After a move from " + fen);
+                    team = team.opponent();
+                }
+                while (ply-- > 0) {
+                    board.unmakeMove(undo[ply]);
+                    assertEquals(keys[ply], board.zobristKey());
+                    assertEquals(recompute(board), board.zobristKey());
+                }
+            }
+        }
+    }
+
+    private static void assertMovesKeepKey(String fen, String... moves) {
+        ChessBoard board = Fen.toGame(fen).getBoard();
+        long before = board.zobristKey();
+        assertEquals(recompute(board), before, fen);
+        for (String move : moves) {
+            long undo = board.makeMove(uci(move));
+            assertEquals(recompute(board), board.zobristKey(), move + " from " + fen);
+            board.unmakeMove(undo);
+            assertEquals(before, board.zobristKey(), move + " taken back from " + fen);
+        }
+    }
+
+    // The key worked out from the position alone, without the board's running value
+    private static long recompute(ChessBoard board) {
+        long key = Zobrist.castling(board.castlingRights());
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null) {
+                key ^= Zobrist.piece(ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType()), square);
+            }
+        }
+        int enPassant = board.enPassantSquare();
+        return enPassant >= 0 ? key ^ Zobrist.enPassant(enPassant & 7) : key;
+    }
+
+    private static ChessMove uci(String move) {
+        ChessPiece.PieceType promotion = move.length() < 5 ? null : switch (move.charAt(4)) {
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            default -> ChessPiece.PieceType.KNIGHT;
+        };
+        return new ChessMove(ChessPosition.fromAlgebraic(move.substring(0, 2)),
+                ChessPosition.fromAlgebraic(move.substring(2, 4)), promotion);
+    }
+}
@@ -0,0 +1,80 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveGenerator;
+import chess.ChessPosition;
+import chess.MoveList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Evaluation - Starting Position Is Even")
+    public void startingPositionIsEven() {
+        ChessGame game = new ChessGame();
+        assertEquals(0, Evaluation.evaluate(game.getBoard()));
+        assertEquals(ChessBoard.MAX_PHASE, game.getBoard().gamePhase());
+    }
+
+    @Test
+    @DisplayName("Evaluation - Mirrored Position Scores The Same For Both Sides")
+    public void mirroredPosition() {
+        ChessGame white = Fen.toGame("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w - - 2 3");
+        ChessGame black = Fen.toGame("rnbqkb1r/pppp1ppp/5n2/4p3/4P3/2N5/PPPP1PPP/R1BQKBNR b - - 2 3");
+        assertEquals(Evaluation.evaluate(white.getBoard(), ChessGame.TeamColor.WHITE),
+                Evaluation.evaluate(black.getBoard(), ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Evaluation - Extra Material Wins")
+    public void extraMaterial() {
+        ChessGame game = Fen.toGame("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+        assertTrue(Evaluation.evaluate(game.getBoard(), ChessGame.TeamColor.WHITE) > 800);
+        assertTrue(Evaluation.evaluate(game.getBoard(), ChessGame.TeamColor.BLACK) < -800);
+    }
+
+    @Test
+    @DisplayName("Evaluation - Incremental Scores Match A Fresh Board")
+    public void incrementalMatchesFresh() {
+        Random random = new Random(7);
+        for (int game = 0; game < 20; game++) {
+            ChessBoard board = new ChessGame().getBoard();
+            ChessGame.TeamColor team = ChessGame.TeamColor.WHITE;
+            MoveList moves = new MoveList();
+            long[] undo = new long[80];
+            int plies = 0;
+            for (; plies < undo.length; plies++) {
+                moves.clear();
+                MoveGenerator.legalMoves(board, team, -1L, moves);
+                if (moves.isEmpty()) { break; }
+                undo[plies] = board.makeMove(moves.get(random.nextInt(moves.size())));
+                team = team.opponent();
+                assertScoresMatchFresh(board);
+            }
+            while (plies > 0) {
+                board.unmakeMove(undo[--plies]);
+                assertScoresMatchFresh(board);
+            }
+            assertEquals(0, Evaluation.evaluate(board));
+        }
+    }
+
+    private static void assertScoresMatchFresh(ChessBoard board) {
+        ChessBoard fresh = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            if (board.getPiece(square) != null) {
+                fresh.addPiece(ChessPosition.of(square / 8 + 1, square % 8 + 1), board.getPiece(square));
+            }
+        }
+        assertEquals(fresh.middlegameScore(), board.middlegameScore());
+        assertEquals(fresh.endgameScore(), board.endgameScore());
+        assertEquals(fresh.gamePhase(), board.gamePhase());
+    }
+}
@@ -0,0 +1,61 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSearchTests {
+
+    @Test
+    @DisplayName("ParallelSearch - Stops On Time Limit")
+    public void stopsOnTimeLimit() throws Exception {
+        try (ParallelSearch search = new ParallelSearch(8, new TranspositionTable(4))) {
+            for (int i = 0; i < 20; i++) {
+                SearchResult result = searchWithin(search, new ChessGame(), SearchLimits.time(5));
+                assertNotNull(result.bestMove());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("ParallelSearch - Stops On Node Limit")
+    public void stopsOnNodeLimit() throws Exception {
+        ChessGame game = Fen.toGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        try (ParallelSearch search = new ParallelSearch(8, new TranspositionTable(4))) {
+            for (int i = 0; i < 20; i++) {
+                SearchResult result = searchWithin(search, game, SearchLimits.nodes(1));
+                assertNotNull(result.bestMove(), "A move should be returned even when the budget runs out");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("ParallelSearch - Finds Back Rank Mate")
+    public void findsMate() throws Exception {
+        ChessGame game = Fen.toGame("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1");
+        try (ParallelSearch search = new ParallelSearch(4, new TranspositionTable(4))) {
+            SearchResult result = searchWithin(search, game, SearchLimits.depth(4));
+            assertEquals(Search.MATE - 1, result.score());
+        }
+    }
+
+    // Fails instead of hanging if a helper thread never stops
+    private static SearchResult searchWithin(ParallelSearch search, ChessGame game, SearchLimits limits)
+            throws Exception {
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<SearchResult> result = caller.submit(() -> search.search(game, limits));
+            return result.get(10, TimeUnit.SECONDS);
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Search - Finds Back Rank Mate")
+    public void findsMateInOne() {
+        ChessGame game = Fen.toGame("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+
+        assertEquals(new ChessMove(new ChessPosition(1, 4), new ChessPosition(8, 4), null), result.bestMove());
+        assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    @DisplayName("Search - Wins Hanging Queen")
+    public void capturesFreeMaterial() {
+        ChessGame game = Fen.toGame("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+
+        assertEquals(new ChessPosition(5, 4), result.bestMove().getEndPosition());
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    @DisplayName("Search - Respects Node Budget")
+    public void respectsNodeBudget() {
+        ChessGame game = new ChessGame();
+        SearchResult result = new Search().search(game, SearchLimits.nodes(5000));
+
+        assertNotNull(result.bestMove(), "A move should be returned even when the budget runs out");
+        assertTrue(result.nodes() <= 5000);
+        assertEquals(new ChessGame(), game, "Searching should not change the game");
+    }
+
+    @Test
+    @DisplayName("Search - Quiescence Plays Out Checks")
+    public void quiescenceEvasions() {
+        // Nxf7+ forks king and queen, and the king's only replies are quiet. At depth 1
+        // that's only seen if the checked side has to move instead of standing pat.
+        ChessGame game = Fen.toGame("r2q3k/5ppp/8/4N3/4B3/8/8/6K1 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(1));
+
+        assertEquals(new ChessMove(new ChessPosition(5, 5), new ChessPosition(7, 6), null), result.bestMove());
+        int before = Evaluation.evaluate(game.getBoard(), ChessGame.TeamColor.WHITE);
+        assertTrue(result.score() > before + 500, "The queen should be counted as won: " + result.score());
+    }
+
+    @Test
+    @DisplayName("Search - No Legal Moves")
+    public void noLegalMoves() {
+        ChessGame game = Fen.toGame("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+
+        assertNull(result.bestMove());
+    }
+}
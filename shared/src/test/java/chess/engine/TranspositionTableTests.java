@@ -0,0 +1,65 @@
+package chess.engine;
+
+import chess.ChessPiece;
+import chess.Move;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Table - Store and Probe")
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.encode(12, 28, null, 0);
+        table.store(0x1234_5678_9ABC_DEF0L, move, -45, 6, TranspositionTable.EXACT, 0);
+
+        long entry = table.probe(0x1234_5678_9ABC_DEF0L);
+        assertNotEquals(0L, entry);
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-45, TranspositionTable.score(entry, 0));
+        assertEquals(6, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.bound(entry));
+    }
+
+    @Test
+    @DisplayName("Table - Different Key Misses")
+    public void differentKeyMisses() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x0F0F_0F0F_0000_0001L;
+        table.store(key, Move.encode(1, 2, ChessPiece.PieceType.QUEEN, 0), 10, 3, TranspositionTable.LOWER, 0);
+
+        // same slot, different upper bits
+        assertEquals(0L, table.probe(key ^ (1L << 62)));
+        assertEquals(0L, table.probe(key + 1));
+    }
+
+    @Test
+    @DisplayName("Table - Mate Scores Relative To Ply")
+    public void mateScoresRelativeToPly() {
+        TranspositionTable table = new TranspositionTable(1);
+        // mate in 5 plies from the root, stored at ply 3
+        table.store(42L, Move.NONE, Search.MATE - 5, 4, TranspositionTable.EXACT, 3);
+
+        long entry = table.probe(42L);
+        assertEquals(Search.MATE - 5, TranspositionTable.score(entry, 3));
+        assertEquals(Search.MATE - 3, TranspositionTable.score(entry, 1));
+    }
+
+    @Test
+    @DisplayName("Table - Keeps Deeper Entry")
+    public void keepsDeeperEntry() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.newSearch();
+        table.store(7L, Move.NONE, 100, 8, TranspositionTable.LOWER, 0);
+        table.store(7L + (1L << 40), Move.NONE, 5, 2, TranspositionTable.LOWER, 0);
+        assertEquals(8, TranspositionTable.depth(table.probe(7L)));
+
+        // a later search may overwrite it
+        table.newSearch();
+        table.store(7L + (1L << 40), Move.NONE, 5, 2, TranspositionTable.LOWER, 0);
+        assertEquals(0L, table.probe(7L));
+    }
+}
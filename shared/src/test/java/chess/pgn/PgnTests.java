@@ -0,0 +1,157 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.Fen;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnTests {
+    private static final String COLLECTION = """
+            [Event "Opera Game"]
+            [White "Morphy, Paul"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 {This is a weak move already.} 4. dxe5 Bxf3
+            5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7 8. Nc3 c6 9. Bg5 b5 $6 10. Nxb5 cxb5
+            11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7 14. Rd1 Qe6 (14... Qb4 15. Bxf6) 15. Bxd7+ Nxd7
+            16. Qb8+ Nxb8 17. Rd8# 1-0
+
+            [Event "Illegal"]
+            [Result "*"]
+
+            1. e4 e5 2. Nf3 Nc6
+            3. Bb5 Ke6 *
+
+            % an escaped line that isn't PGN
+            [Event "From a position"]
+            [SetUp "1"]
+            [FEN "4k3/P7/8/8/8/8/8/4K3 w - - 0 1"]
+            [Result "1/2-1/2"]
+
+            1. a8=Q+ Kd7 2.Qb7+ Kd6 1/2-1/2
+            """;
+
+    @Test
+    @DisplayName("PGN - Reads Tags And Moves")
+    public void readsTagsAndMoves() throws IOException {
+        try (PgnReader reader = PgnReader.of(COLLECTION.getBytes(StandardCharsets.UTF_8))) {
+            PgnGame opera = reader.next();
+            assertEquals("Morphy, Paul", opera.tags().get("White"));
+            assertEquals("1-0", opera.result());
+            assertEquals(33, opera.moves().size(), "Comments, NAGs and variations should be skipped");
+            assertEquals("Rd8#", opera.moves().get(32));
+            assertEquals(1, opera.firstLine());
+            assertEquals(9, opera.moveLines()[32]);
+
+            PgnGame illegal = reader.next();
+            assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bb5", "Ke6"), illegal.moves());
+            assertEquals(15, illegal.moveLines()[5]);
+
+            PgnGame fromPosition = reader.next();
+            assertEquals("1/2-1/2", fromPosition.result());
+            assertEquals(List.of("a8=Q+", "Kd7", "Qb7+", "Kd6"), fromPosition.moves());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("PGN - Validates Games With Line Numbers")
+    public void validates() throws IOException {
+        try (PgnReader reader = PgnReader.of(COLLECTION.getBytes(StandardCharsets.UTF_8))) {
+            PgnImporter.Result opera = PgnImporter.validate(reader.next());
+            assertTrue(opera.accepted());
+            assertTrue(opera.position().isInCheckmate(ChessGame.TeamColor.BLACK));
+
+            PgnImporter.Result illegal = PgnImporter.validate(reader.next());
+            assertFalse(illegal.accepted());
+            assertEquals(15, illegal.errorLine());
+            assertTrue(illegal.error().startsWith("3... "), illegal.error());
+
+            PgnImporter.Result fromPosition = PgnImporter.validate(reader.next());
+            assertTrue(fromPosition.accepted(), fromPosition.error());
+            assertEquals("8/1Q6/3k4/8/8/8/8/4K3 w - - 3 3", Fen.toFen(fromPosition.position()));
+        }
+    }
+
+    @Test
+    @DisplayName("PGN - Parallel Import Across Small Windows")
+    public void parallelImport() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("games", ".pgn");
+        try {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 50; i++) {
+                text.append(COLLECTION).append('\n');
+            }
+            Files.writeString(file, text);
+
+            ConcurrentLinkedQueue<PgnImporter.Result> rejected = new ConcurrentLinkedQueue<>();
+            PgnImporter.Summary summary;
+            // a 100 byte window makes tokens and tags straddle the mapped regions
+            try (PgnReader reader = new PgnReader(FileChannel.open(file, StandardOpenOption.READ), 100)) {
+                summary = new PgnImporter(4).run(reader, result -> {
+                    if (!result.accepted()) { rejected.add(result); }
+                });
+            }
+            assertEquals(150, summary.games());
+            assertEquals(100, summary.accepted());
+            assertEquals(50, summary.rejected());
+            int linesPerCopy = (int) COLLECTION.lines().count() + 1;
+            for (PgnImporter.Result result : rejected) {
+                assertEquals(15, (result.errorLine() - 1) % linesPerCopy + 1);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("PGN - Failing Sink Counts As Rejected")
+    public void failingSink() throws IOException, InterruptedException {
+        ConcurrentLinkedQueue<PgnImporter.Result> rejected = new ConcurrentLinkedQueue<>();
+        PgnImporter.Summary summary;
+        try (PgnReader reader = PgnReader.of(COLLECTION.getBytes(StandardCharsets.UTF_8))) {
+            summary = new PgnImporter(2).run(reader, result -> {
+                if ("Opera Game".equals(result.game().tags().get("Event")) && result.accepted()) {
+                    throw new IllegalStateException("storage is full");
+                }
+                if (!result.accepted()) { rejected.add(result); }
+            });
+        }
+        assertEquals(3, summary.games());
+        assertEquals(1, summary.accepted());
+        assertEquals(2, summary.rejected());
+        assertTrue(rejected.stream().anyMatch(result -> result.error().contains("storage is full")));
+    }
+
+    @Test
+    @DisplayName("PGN - Trailing Comments Aren't A Game")
+    public void trailingComments() throws IOException, InterruptedException {
+        String pgn = COLLECTION + "\n{a comment after the last game}\n; and a line comment\n% an escape\n(1. e4)\n";
+        try (PgnReader reader = PgnReader.of(pgn.getBytes(StandardCharsets.UTF_8))) {
+            for (int i = 0; i < 3; i++) {
+                assertNotNull(reader.next());
+            }
+            assertNull(reader.next());
+        }
+        try (PgnReader reader = PgnReader.of(pgn.getBytes(StandardCharsets.UTF_8))) {
+            PgnImporter.Summary summary = new PgnImporter(2).run(reader, result -> { });
+            assertEquals(3, summary.games());
+            assertEquals(2, summary.accepted());
+        }
+        try (PgnReader reader = PgnReader.of("{only a comment} *".getBytes(StandardCharsets.UTF_8))) {
+            assertNull(reader.next());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package serialization;
+
+import chess.*;
+import com.google.gson.Gson;
+import model.GameData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ErrorMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonTests {
+    private static final Gson REFLECTIVE = new Gson();
+
+    @Test
+    @DisplayName("Json - Games Match Reflective Gson")
+    public void gamesMatchReflection() throws InvalidMoveException {
+        Random random = new Random(24);
+        for (int g = 0; g < 20; g++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 100; ply++) {
+                String json = Json.GSON.toJson(game);
+                assertEquals(REFLECTIVE.toJson(game), json);
+
+                ChessGame copy = Json.GSON.fromJson(json, ChessGame.class);
+                assertEquals(json, REFLECTIVE.toJson(copy));
+                assertEquals(Fen.toFen(game), Fen.toFen(copy));
+                assertEquals(game.getZobristKey(), copy.getZobristKey());
+                assertFalse(json.contains("positionHistory"), "The repetition history isn't sent to clients");
+
+                List<ChessMove> moves = new ArrayList<>(game.legalMoves());
+                if (moves.isEmpty()) { break; }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Json - Reads Reflective Gson Output")
+    public void readsReflection() {
+        ChessGame game = Fen.toGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 3 9");
+        GameData data = new GameData(7, "white", null, "kiwipete", game);
+        GameData read = Json.GSON.fromJson(REFLECTIVE.toJson(data), GameData.class);
+        assertEquals(data, read);
+        assertEquals(Fen.toFen(game), Fen.toFen(read.game()));
+        assertEquals(REFLECTIVE.toJson(data), Json.GSON.toJson(data));
+
+        assertEquals(REFLECTIVE.toJsonTree(data), Json.GSON.toJsonTree(data));
+
+        ChessMove move = new ChessMove(ChessPosition.fromAlgebraic("a7"), ChessPosition.fromAlgebraic("a8"),
+                ChessPiece.PieceType.QUEEN);
+        assertEquals(REFLECTIVE.toJson(move), Json.GSON.toJson(move));
+        assertEquals(move, Json.GSON.fromJson(REFLECTIVE.toJson(move), ChessMove.class));
+
+        String sparse = "{\"board\":{\"squares\":[[null,null,null,null,{\"pieceColor\":\"WHITE\",\"type\":\"KING\"}]],"
+                + "\"extra\":1},\"team\":\"BLACK\",\"unknown\":[1,2]}";
+        ChessGame sparseGame = Json.GSON.fromJson(sparse, ChessGame.class);
+        assertEquals(ChessGame.TeamColor.BLACK, sparseGame.getTeamTurn());
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                sparseGame.getBoard().getPiece(ChessPosition.fromAlgebraic("e1")));
+        assertEquals(1, sparseGame.getFullmoveNumber(), "Missing fields keep a new game's values");
+    }
+
+    @Test
+    @DisplayName("Json - Server Messages")
+    public void serverMessages() {
+        GameData data = new GameData(3, "a", "b", "game", new ChessGame());
+        ServerMessage[] messages = {
+                new LoadGameMessage(data),
+                new LoadGameMessage(data, -35),
+                new ErrorMessage("Error: not your turn"),
+                new NotificationMessage("a moved e4")
+        };
+        for (ServerMessage message : messages) {
+            String json = Json.GSON.toJson(message);
+            assertEquals(REFLECTIVE.toJson(message), json);
+
+            ServerMessage read = Json.GSON.fromJson(json, ServerMessage.class);
+            assertSame(message.getClass(), read.getClass(), "Picked from serverMessageType");
+            assertEquals(json, Json.GSON.toJson(read));
+            assertEquals(json, Json.GSON.toJson(Json.GSON.fromJson(json, message.getClass())));
+        }
+    }
+
+    @Test
+    @DisplayName("Json - User Game Commands")
+    public void userGameCommands() {
+        ChessMove move = new ChessMove(ChessPosition.fromAlgebraic("e2"), ChessPosition.fromAlgebraic("e4"), null);
+        UserGameCommand[] commands = {
+                new UserGameCommand(UserGameCommand.CommandType.CONNECT, "token", 5),
+                new UserGameCommand(UserGameCommand.CommandType.RESIGN, "token", 5),
+                new MakeMoveCommand("token", 5, move)
+        };
+        for (UserGameCommand command : commands) {
+            String json = Json.GSON.toJson(command);
+            assertEquals(REFLECTIVE.toJson(command), json);
+
+            UserGameCommand read = Json.GSON.fromJson(json, UserGameCommand.class);
+            assertEquals(command, read);
+            assertSame(command.getClass(), read.getClass(), "MAKE_MOVE reads as a MakeMoveCommand");
+        }
+        MakeMoveCommand makeMove = Json.GSON.fromJson(REFLECTIVE.toJson(commands[2]), MakeMoveCommand.class);
+        assertEquals(move, makeMove.getMove());
+    }
+}